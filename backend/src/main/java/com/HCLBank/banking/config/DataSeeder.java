@@ -111,7 +111,7 @@ public class DataSeeder {
                         account.setAccountType("SAVINGS");
                         account.setBalance(BigDecimal.valueOf(seed.openingBalance));
                         account.setCustomer(customer);
-                        account = accountRepository.saveAndFlush(account);
+                        accountRepository.save(account);
                     } else {
                         account = accounts.get(0);
                         if (account.getBalance() == null || account.getBalance().compareTo(BigDecimal.ZERO) <= 0) {
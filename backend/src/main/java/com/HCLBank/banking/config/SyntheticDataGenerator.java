@@ -0,0 +1,419 @@
+package com.HCLBank.banking.config;
+
+import com.HCLBank.banking.entity.Account;
+import com.HCLBank.banking.entity.Transaction;
+import com.HCLBank.banking.repository.CustomerImportJdbcRepository;
+import com.HCLBank.banking.repository.CustomerImportJdbcRepository.ImportedCustomer;
+import com.HCLBank.banking.repository.CustomerImportJdbcRepository.InsertedBlock;
+import com.HCLBank.banking.repository.CustomerImportJdbcRepository.NewAccount;
+import com.HCLBank.banking.repository.LedgerJdbcRepository;
+import com.HCLBank.banking.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fills the database with benchmark data when started with the synthetic-data profile:
+ * N customers with one account each, further accounts up to M, and K ledger rows between two
+ * dates. Which accounts own extra accounts and which accounts transact follow a Zipf power law,
+ * so a few accounts are very busy and most see little activity, as in real ledgers. Rows are
+ * produced in date order by one seeded generator, carrying correct running balances, and
+ * written as JDBC batches by a pool of writer threads. The same seed and sizes on an empty
+ * database give the same data; only ids can differ between runs with more than one writer.
+ */
+@Component
+@Profile("synthetic-data")
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    private static final double TRANSFER_SHARE = 0.7;
+    private static final double DEPOSIT_SHARE = 0.15;
+
+    private final CustomerImportJdbcRepository customerImportRepository;
+    private final LedgerJdbcRepository ledgerJdbcRepository;
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionTemplate batchTransaction;
+
+    @Value("${banking.synthetic.customers:10000}")
+    private int customers;
+
+    @Value("${banking.synthetic.accounts:15000}")
+    private int accounts;
+
+    @Value("${banking.synthetic.transactions:1000000}")
+    private long transactions;
+
+    @Value("${banking.synthetic.from:2024-01-01}")
+    private LocalDate from;
+
+    @Value("${banking.synthetic.to:2025-01-01}")
+    private LocalDate to;
+
+    @Value("${banking.synthetic.seed:42}")
+    private long seed;
+
+    @Value("${banking.synthetic.zipf-exponent:1.1}")
+    private double zipfExponent;
+
+    @Value("${banking.synthetic.threads:0}")
+    private int threads;
+
+    @Value("${banking.synthetic.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${banking.synthetic.user-prefix:synth}")
+    private String userPrefix;
+
+    @Value("${banking.synthetic.password:password123}")
+    private String password;
+
+    public SyntheticDataGenerator(CustomerImportJdbcRepository customerImportRepository,
+                                  LedgerJdbcRepository ledgerJdbcRepository,
+                                  UserRepository userRepository,
+                                  PasswordEncoder passwordEncoder,
+                                  PlatformTransactionManager transactionManager) {
+        this.customerImportRepository = customerImportRepository;
+        this.ledgerJdbcRepository = ledgerJdbcRepository;
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        if (userRepository.findByUserName(userPrefix + "0").isPresent()) {
+            System.out.println("Synthetic data with prefix '" + userPrefix + "' already exists, skipping generation");
+            return;
+        }
+        if (accounts < customers || customers <= 0) {
+            throw new IllegalStateException("banking.synthetic.accounts must be at least banking.synthetic.customers (> 0)");
+        }
+        int writerCount = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        ExecutorService writers = Executors.newFixedThreadPool(writerCount, runnable -> {
+            Thread thread = new Thread(runnable, "synthetic-data-writer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            Generation generation = new Generation(new BatchWriter(writers, writerCount * 2));
+            long started = System.nanoTime();
+            generation.createCustomers();
+            generation.createExtraAccounts();
+            System.out.println("Synthetic data: " + customers + " customers and " + accounts + " accounts in "
+                    + seconds(started) + " s");
+            long ledgerStarted = System.nanoTime();
+            generation.createLedger();
+            generation.storeFinalBalances();
+            System.out.println("Synthetic data: " + transactions + " ledger rows in " + seconds(ledgerStarted) + " s ("
+                    + Math.round(transactions / Math.max(seconds(ledgerStarted), 0.001)) + " rows/s)");
+        } finally {
+            writers.shutdownNow();
+        }
+    }
+
+    private static double seconds(long startedNanos) {
+        return Math.round((System.nanoTime() - startedNanos) / 1_000_000.0) / 1000.0;
+    }
+
+    /**
+     * State of one run. Everything random is drawn here, on the calling thread, from one seeded
+     * generator; the writers only insert what they are handed.
+     */
+    private final class Generation {
+        private final Random random = new Random(seed);
+        private final BatchWriter writer;
+        // Filled in creation order: the first customers-many are the customers' first accounts
+        private final long[] accountIds = new long[accounts];
+        private final long[] balanceCents = new long[accounts];
+        private final long[] customerIds = new long[customers];
+        private final Account[] accountRefs = new Account[accounts];
+        // Zipf rank -> account index, shuffled so busy accounts are spread over the id range
+        private final int[] accountByRank;
+        private final double[] accountRankCdf;
+
+        private Generation(BatchWriter writer) {
+            this.writer = writer;
+            this.accountByRank = shuffledIndexes(accounts);
+            this.accountRankCdf = zipfCdf(accounts);
+        }
+
+        private void createCustomers() throws InterruptedException, ExecutionException {
+            // One hash for every synthetic user: hashing millions of passwords is not what is being measured
+            String passwordHash = passwordEncoder.encode(password);
+            List<Future<InsertedBlock>> blocks = new ArrayList<>();
+            List<ImportedCustomer> chunk = new ArrayList<>(batchSize);
+            for (int i = 0; i < customers; i++) {
+                balanceCents[i] = openingBalanceCents();
+                String userName = userPrefix + i;
+                chunk.add(new ImportedCustomer(userName, userName + "@synthetic.hcl", passwordHash, userName + "@hcl",
+                        true, i % 4 == 0 ? "CURRENT" : "SAVINGS", BigDecimal.valueOf(balanceCents[i], 2)));
+                if (chunk.size() == batchSize || i == customers - 1) {
+                    List<ImportedCustomer> batch = List.copyOf(chunk);
+                    blocks.add(writer.submit(() -> customerImportRepository.insert(batch)));
+                    chunk.clear();
+                }
+            }
+            int index = 0;
+            for (Future<InsertedBlock> future : blocks) {
+                InsertedBlock block = future.get();
+                int size = Math.min(batchSize, customers - index);
+                for (int i = 0; i < size; i++, index++) {
+                    customerIds[index] = block.firstCustomerId() + i;
+                    accountIds[index] = block.firstAccountId() + i;
+                }
+            }
+        }
+
+        // Owners are drawn from the same power law, so a few customers hold many accounts
+        private void createExtraAccounts() throws InterruptedException, ExecutionException {
+            double[] customerRankCdf = zipfCdf(customers);
+            List<Future<Long>> blocks = new ArrayList<>();
+            List<NewAccount> chunk = new ArrayList<>(batchSize);
+            for (int i = customers; i < accounts; i++) {
+                balanceCents[i] = openingBalanceCents();
+                long owner = customerIds[sample(customerRankCdf)];
+                chunk.add(new NewAccount(owner, userPrefix + " account " + i, "SAVINGS", BigDecimal.valueOf(balanceCents[i], 2)));
+                if (chunk.size() == batchSize || i == accounts - 1) {
+                    List<NewAccount> batch = List.copyOf(chunk);
+                    blocks.add(writer.submit(() -> customerImportRepository.insertAccounts(batch)));
+                    chunk.clear();
+                }
+            }
+            int index = customers;
+            for (Future<Long> future : blocks) {
+                long firstId = future.get();
+                int size = Math.min(batchSize, accounts - index);
+                for (int i = 0; i < size; i++) {
+                    accountIds[index++] = firstId + i;
+                }
+            }
+        }
+
+        /**
+         * Rows arrive as a Poisson process over the date range, so they come out in date order
+         * and each running balance follows from the one before. A transfer or withdrawal the
+         * account cannot cover becomes a deposit instead.
+         */
+        private void createLedger() throws InterruptedException, ExecutionException {
+            long startMillis = from.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+            long endMillis = to.atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+            double meanGapMillis = (double) (endMillis - startMillis) / Math.max(transactions, 1);
+            double at = startMillis;
+            List<Transaction> batch = new ArrayList<>(batchSize);
+            for (long n = 0; n < transactions; n++) {
+                at = Math.min(at - Math.log(1 - random.nextDouble()) * meanGapMillis, endMillis - 1);
+                LocalDateTime date = LocalDateTime.ofEpochSecond(Math.floorDiv((long) at, 1000),
+                        (int) Math.floorMod((long) at, 1000) * 1_000_000, ZoneOffset.UTC);
+                batch.add(nextRow(date));
+                if (batch.size() == batchSize) {
+                    submitLedgerBatch(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            submitLedgerBatch(batch);
+            writer.awaitAll();
+        }
+
+        private Transaction nextRow(LocalDateTime date) {
+            double kind = random.nextDouble();
+            int source = accountByRank[sample(accountRankCdf)];
+            long amount = amountCents();
+            Transaction row = new Transaction();
+            row.setTransactionDate(date);
+            row.setTransactionAmount(BigDecimal.valueOf(amount, 2));
+            if (kind < TRANSFER_SHARE && balanceCents[source] >= amount && accounts > 1) {
+                int target = source;
+                while (target == source) {
+                    target = accountByRank[sample(accountRankCdf)];
+                }
+                balanceCents[source] -= amount;
+                balanceCents[target] += amount;
+                row.setTransactionType("TRANSFER");
+                row.setSourceAccount(ref(source));
+                row.setTargetAccount(ref(target));
+                row.setSourceBalanceAfter(BigDecimal.valueOf(balanceCents[source], 2));
+                row.setTargetBalanceAfter(BigDecimal.valueOf(balanceCents[target], 2));
+                row.setTransferId(new UUID(random.nextLong(), random.nextLong()).toString());
+            } else if (kind >= TRANSFER_SHARE + DEPOSIT_SHARE && balanceCents[source] >= amount) {
+                balanceCents[source] -= amount;
+                row.setTransactionType("DEBIT");
+                row.setSourceAccount(ref(source));
+                row.setSourceBalanceAfter(BigDecimal.valueOf(balanceCents[source], 2));
+                row.setRemarks("Self Withdrawal");
+            } else {
+                balanceCents[source] += amount;
+                row.setTransactionType("CREDIT");
+                row.setTargetAccount(ref(source));
+                row.setTargetBalanceAfter(BigDecimal.valueOf(balanceCents[source], 2));
+                row.setRemarks("Self Deposit");
+            }
+            return row;
+        }
+
+        private void submitLedgerBatch(List<Transaction> batch) throws InterruptedException {
+            if (!batch.isEmpty()) {
+                writer.submit(() -> {
+                    ledgerJdbcRepository.insertTransactions(batch);
+                    return null;
+                });
+            }
+        }
+
+        // Account balances as of the last generated row, matching the ledger's running balances
+        private void storeFinalBalances() throws InterruptedException, ExecutionException {
+            List<Account> chunk = new ArrayList<>(batchSize);
+            for (int i = 0; i < accounts; i++) {
+                Account account = new Account();
+                account.setAccountId(accountIds[i]);
+                account.setBalance(BigDecimal.valueOf(balanceCents[i], 2));
+                chunk.add(account);
+                if (chunk.size() == batchSize || i == accounts - 1) {
+                    List<Account> batch = List.copyOf(chunk);
+                    writer.submit(() -> {
+                        ledgerJdbcRepository.updateBalances(batch);
+                        return null;
+                    });
+                    chunk.clear();
+                }
+            }
+            writer.awaitAll();
+        }
+
+        private Account ref(int index) {
+            Account account = accountRefs[index];
+            if (account == null) {
+                account = new Account();
+                account.setAccountId(accountIds[index]);
+                accountRefs[index] = account;
+            }
+            return account;
+        }
+
+        // Log-normal around 5,000.00 with a long tail of large balances
+        private long openingBalanceCents() {
+            return Math.round(Math.exp(random.nextGaussian() + Math.log(500_000)));
+        }
+
+        // Log-normal around 500.00; most payments are small, a few are large
+        private long amountCents() {
+            return Math.max(100, Math.min(Math.round(Math.exp(1.2 * random.nextGaussian() + Math.log(50_000))), 1_000_000_000L));
+        }
+
+        private int sample(double[] cdf) {
+            int index = Arrays.binarySearch(cdf, random.nextDouble() * cdf[cdf.length - 1]);
+            return Math.min(index < 0 ? -index - 1 : index, cdf.length - 1);
+        }
+
+        private double[] zipfCdf(int size) {
+            double[] cdf = new double[size];
+            double total = 0;
+            for (int rank = 0; rank < size; rank++) {
+                total += 1 / Math.pow(rank + 1, zipfExponent);
+                cdf[rank] = total;
+            }
+            return cdf;
+        }
+
+        private int[] shuffledIndexes(int size) {
+            int[] indexes = new int[size];
+            for (int i = 0; i < size; i++) {
+                indexes[i] = i;
+            }
+            for (int i = size - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                int swap = indexes[i];
+                indexes[i] = indexes[j];
+                indexes[j] = swap;
+            }
+            return indexes;
+        }
+    }
+
+    /**
+     * Runs each batch in its own transaction on the writer pool. At most maxPending batches are
+     * queued or running, so the generator cannot outrun the database and fill the heap.
+     */
+    private final class BatchWriter {
+        private final ExecutorService writers;
+        private final Semaphore pending;
+        private final int maxPending;
+        private final List<Future<?>> submitted = new ArrayList<>();
+
+        private BatchWriter(ExecutorService writers, int maxPending) {
+            this.writers = writers;
+            this.maxPending = maxPending;
+            this.pending = new Semaphore(maxPending);
+        }
+
+        private <T> Future<T> submit(Callable<T> batch) throws InterruptedException {
+            pending.acquire();
+            try {
+                Future<T> future = writers.submit(() -> {
+                    try {
+                        return batchTransaction.execute(status -> {
+                            try {
+                                return batch.call();
+                            } catch (RuntimeException ex) {
+                                throw ex;
+                            } catch (Exception ex) {
+                                throw new IllegalStateException(ex);
+                            }
+                        });
+                    } finally {
+                        pending.release();
+                    }
+                });
+                submitted.add(future);
+                // Completed batches are checked as we go, so a failure stops generation early
+                submitted.removeIf(this::completedSuccessfully);
+                return future;
+            } catch (RuntimeException ex) {
+                pending.release();
+                throw ex;
+            }
+        }
+
+        private void awaitAll() throws InterruptedException, ExecutionException {
+            pending.acquire(maxPending);
+            pending.release(maxPending);
+            for (Future<?> future : submitted) {
+                future.get();
+            }
+            submitted.clear();
+        }
+
+        private boolean completedSuccessfully(Future<?> future) {
+            if (!future.isDone()) {
+                return false;
+            }
+            try {
+                future.get();
+                return true;
+            } catch (Exception ex) {
+                throw new IllegalStateException("Writing synthetic data failed", ex);
+            }
+        }
+    }
+}
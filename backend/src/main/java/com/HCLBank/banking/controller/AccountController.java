@@ -6,6 +6,7 @@ import com.HCLBank.banking.dto.DepositRequestDTO;
 import com.HCLBank.banking.dto.DepositResponseDTO;
 import com.HCLBank.banking.entity.Account;
 import com.HCLBank.banking.service.AccountService;
+import com.HCLBank.banking.service.IdempotencyService;
 
 import jakarta.validation.Valid;
 
@@ -23,9 +24,12 @@ import org.springframework.security.core.context.SecurityContextHolder;
 public class AccountController {
 
     private final AccountService accountService;
+    private final IdempotencyService idempotencyService;
 
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService,
+                             IdempotencyService idempotencyService) {
         this.accountService = accountService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping("/my-account")
@@ -64,8 +68,10 @@ public class AccountController {
     }
 
     @PostMapping("/deposit")
-    public ResponseEntity<DepositResponseDTO> deposit(@RequestBody DepositRequestDTO request) {
-        return ResponseEntity.ok(accountService.deposit(request));
+    public ResponseEntity<DepositResponseDTO> deposit(@RequestBody DepositRequestDTO request,
+                                                      @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return ResponseEntity.ok(idempotencyService.execute("deposit", idempotencyKey, request,
+                DepositResponseDTO.class, () -> accountService.deposit(request)));
     }
 
     // Withdraw
@@ -0,0 +1,175 @@
+package com.HCLBank.banking.controller;
+
+import com.HCLBank.banking.security.JwtUtil;
+import com.HCLBank.banking.security.LoadSheddingFilter;
+import com.HCLBank.banking.security.PasswordHasher;
+import com.HCLBank.banking.security.RateLimitFilter;
+import com.HCLBank.banking.security.TokenRevocationService;
+import com.HCLBank.banking.security.UserStateCache;
+import com.HCLBank.banking.dto.CustomerImportStatusDTO;
+import com.HCLBank.banking.service.CustomerImportService;
+import com.HCLBank.banking.service.HistoryCache;
+import com.HCLBank.banking.service.LedgerBalanceBackfill;
+import com.HCLBank.banking.service.LegacyTransferMigration;
+import com.HCLBank.banking.service.PostingMetrics;
+import com.HCLBank.banking.service.SingleFlight;
+import com.HCLBank.banking.service.UpiResolutionCache;
+import com.HCLBank.banking.service.engine.BalanceEngine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/admin")
+public class AdminController {
+
+    private final PostingMetrics postingMetrics;
+    private final ObjectProvider<BalanceEngine> balanceEngine;
+    private final LegacyTransferMigration legacyTransferMigration;
+    private final LedgerBalanceBackfill ledgerBalanceBackfill;
+    private final HistoryCache historyCache;
+    private final SingleFlight singleFlight;
+    private final UpiResolutionCache upiResolutionCache;
+    private final UserStateCache userStateCache;
+    private final JwtUtil jwtUtil;
+    private final TokenRevocationService tokenRevocationService;
+    private final PasswordHasher passwordHasher;
+    private final RateLimitFilter rateLimitFilter;
+    private final LoadSheddingFilter loadSheddingFilter;
+    private final CustomerImportService customerImportService;
+
+    public AdminController(PostingMetrics postingMetrics,
+                           ObjectProvider<BalanceEngine> balanceEngine,
+                           LegacyTransferMigration legacyTransferMigration,
+                           LedgerBalanceBackfill ledgerBalanceBackfill,
+                           HistoryCache historyCache,
+                           SingleFlight singleFlight,
+                           UpiResolutionCache upiResolutionCache,
+                           UserStateCache userStateCache,
+                           JwtUtil jwtUtil,
+                           TokenRevocationService tokenRevocationService,
+                           PasswordHasher passwordHasher,
+                           RateLimitFilter rateLimitFilter,
+                           LoadSheddingFilter loadSheddingFilter,
+                           CustomerImportService customerImportService) {
+        this.postingMetrics = postingMetrics;
+        this.balanceEngine = balanceEngine;
+        this.legacyTransferMigration = legacyTransferMigration;
+        this.ledgerBalanceBackfill = ledgerBalanceBackfill;
+        this.historyCache = historyCache;
+        this.singleFlight = singleFlight;
+        this.upiResolutionCache = upiResolutionCache;
+        this.userStateCache = userStateCache;
+        this.jwtUtil = jwtUtil;
+        this.tokenRevocationService = tokenRevocationService;
+        this.passwordHasher = passwordHasher;
+        this.rateLimitFilter = rateLimitFilter;
+        this.loadSheddingFilter = loadSheddingFilter;
+        this.customerImportService = customerImportService;
+    }
+
+    @GetMapping("/posting-stats")
+    public ResponseEntity<Map<String, Object>> getPostingStats() {
+        return ResponseEntity.ok(postingMetrics.snapshot());
+    }
+
+    @GetMapping("/engine-stats")
+    public ResponseEntity<Map<String, Object>> getEngineStats() {
+        BalanceEngine engine = balanceEngine.getIfAvailable();
+        if (engine == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(engine.stats());
+    }
+
+    @GetMapping("/history-cache-stats")
+    public ResponseEntity<Map<String, Object>> getHistoryCacheStats() {
+        return ResponseEntity.ok(historyCache.stats());
+    }
+
+    @GetMapping("/single-flight-stats")
+    public ResponseEntity<Map<String, Object>> getSingleFlightStats() {
+        return ResponseEntity.ok(singleFlight.stats());
+    }
+
+    @GetMapping("/upi-cache-stats")
+    public ResponseEntity<Map<String, Object>> getUpiCacheStats() {
+        return ResponseEntity.ok(upiResolutionCache.stats());
+    }
+
+    @GetMapping("/user-state-cache-stats")
+    public ResponseEntity<Map<String, Object>> getUserStateCacheStats() {
+        return ResponseEntity.ok(userStateCache.stats());
+    }
+
+    @GetMapping("/token-cache-stats")
+    public ResponseEntity<Map<String, Object>> getTokenCacheStats() {
+        return ResponseEntity.ok(jwtUtil.stats());
+    }
+
+    @GetMapping("/revocation-stats")
+    public ResponseEntity<Map<String, Object>> getRevocationStats() {
+        return ResponseEntity.ok(tokenRevocationService.stats());
+    }
+
+    @GetMapping("/password-hasher-stats")
+    public ResponseEntity<Map<String, Object>> getPasswordHasherStats() {
+        return ResponseEntity.ok(passwordHasher.stats());
+    }
+
+    @GetMapping("/rate-limit-stats")
+    public ResponseEntity<Map<String, Object>> getRateLimitStats() {
+        return ResponseEntity.ok(rateLimitFilter.stats());
+    }
+
+    @GetMapping("/load-shedding-stats")
+    public ResponseEntity<Map<String, Object>> getLoadSheddingStats() {
+        return ResponseEntity.ok(loadSheddingFilter.stats());
+    }
+
+    @PostMapping("/users/{userId}/kill-sessions")
+    public ResponseEntity<Map<String, Object>> killSessions(@PathVariable Long userId) {
+        return ResponseEntity.ok(Map.of("revokedIssuedBefore", tokenRevocationService.revokeSessions(userId)));
+    }
+
+    // Returns at once with a job id; the import runs in the background
+    @PostMapping(value = "/customers/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<CustomerImportStatusDTO> importCustomers(@RequestParam("file") MultipartFile file) {
+        return ResponseEntity.accepted().body(customerImportService.start(file));
+    }
+
+    @GetMapping("/customers/import/{jobId}")
+    public ResponseEntity<CustomerImportStatusDTO> getImportStatus(@PathVariable String jobId) {
+        return ResponseEntity.ok(customerImportService.status(jobId));
+    }
+
+    @GetMapping("/customers/import/{jobId}/errors")
+    public ResponseEntity<Resource> getImportErrors(@PathVariable String jobId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-errors-" + jobId + ".csv\"")
+                .body(new FileSystemResource(customerImportService.errorFile(jobId)));
+    }
+
+    @PostMapping("/ledger/merge-legacy-transfers")
+    public ResponseEntity<Map<String, Object>> mergeLegacyTransfers() {
+        return ResponseEntity.ok(Map.of("merged", legacyTransferMigration.mergeLegacyTransfers()));
+    }
+
+    @PostMapping("/ledger/backfill-balances")
+    public ResponseEntity<Map<String, Object>> backfillBalances() {
+        return ResponseEntity.ok(Map.of("updated", ledgerBalanceBackfill.backfillRunningBalances()));
+    }
+}
@@ -24,4 +24,9 @@ public class AuthController {
     public ResponseEntity<AuthResponseDTO> login(@RequestBody LoginRequestDTO request) {
         return ResponseEntity.ok(authService.login(request));
     }
+
+    @PostMapping("/logout")
+    public ResponseEntity<AuthResponseDTO> logout(@RequestHeader(value = "Authorization", required = false) String authorization) {
+        return ResponseEntity.ok(authService.logout(authorization));
+    }
 }
@@ -1,11 +1,22 @@
 package com.HCLBank.banking.controller;
 
-import com.HCLBank.banking.dto.TransactionHistoryDTO;
+import com.HCLBank.banking.dto.BalanceAtDTO;
+import com.HCLBank.banking.dto.BatchTransferResponseDTO;
+import com.HCLBank.banking.dto.TransactionHistoryPageDTO;
 import com.HCLBank.banking.dto.TransferRequestDTO;
+import com.HCLBank.banking.dto.UpiPaymentRequestDTO;
+import com.HCLBank.banking.dto.UpiPaymentResponseDTO;
+import com.HCLBank.banking.service.IdempotencyService;
 import com.HCLBank.banking.service.TransactionService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -13,23 +24,71 @@ import java.util.List;
 public class TransactionController {
 
     private final TransactionService transactionService;
+    private final IdempotencyService idempotencyService;
 
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService,
+                                 IdempotencyService idempotencyService) {
         this.transactionService = transactionService;
+        this.idempotencyService = idempotencyService;
     }
 
     @PostMapping("/transfer")
-    public ResponseEntity<String> transfer(@RequestBody TransferRequestDTO request) {
-        transactionService.transfer(
-                request.getSourceAccountId(),
-                request.getTargetAccountId(),
-                request.getAmount()
-        );
-        return ResponseEntity.ok("Transfer successful");
+    public ResponseEntity<String> transfer(@RequestBody TransferRequestDTO request,
+                                           @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return ResponseEntity.ok(idempotencyService.execute("transfer", idempotencyKey, request, String.class, () -> {
+            transactionService.transfer(
+                    request.getSourceAccountId(),
+                    request.getTargetAccountId(),
+                    request.getAmount()
+            );
+            return "Transfer successful";
+        }));
+    }
+
+    // Resolves the payee and transfers in one call, replacing a /users/search + /transfer round trip
+    @PostMapping("/pay-upi")
+    public ResponseEntity<UpiPaymentResponseDTO> payUpi(@RequestBody UpiPaymentRequestDTO request,
+                                                        @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return ResponseEntity.ok(idempotencyService.execute("pay-upi", idempotencyKey, request,
+                UpiPaymentResponseDTO.class, () -> transactionService.payUpi(request)));
+    }
+
+    @PostMapping("/transfer/batch")
+    public ResponseEntity<BatchTransferResponseDTO> transferBatch(@RequestBody List<TransferRequestDTO> requests) {
+        return ResponseEntity.ok(transactionService.transferBatch(requests));
     }
 
     @GetMapping("/history/{accountId}")
-    public ResponseEntity<List<TransactionHistoryDTO>> getHistory(@PathVariable Long accountId) {
-        return ResponseEntity.ok(transactionService.getHistory(accountId));
+    public ResponseEntity<TransactionHistoryPageDTO> getHistory(
+            @PathVariable Long accountId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String type) {
+        return ResponseEntity.ok(transactionService.getHistory(accountId, cursor, limit, from, to, type));
+    }
+
+    @GetMapping("/history/{accountId}/balance")
+    public ResponseEntity<BalanceAtDTO> getBalanceAt(
+            @PathVariable Long accountId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        return ResponseEntity.ok(transactionService.getBalanceAt(accountId, at));
+    }
+
+    @GetMapping("/history/{accountId}/export")
+    public ResponseEntity<StreamingResponseBody> exportHistory(
+            @PathVariable Long accountId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String type) {
+        StreamingResponseBody body = transactionService.exportHistory(accountId, from, to, type, format);
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.parseMediaType("application/x-ndjson") : MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"statement-" + accountId + (ndjson ? ".ndjson" : ".csv") + "\"")
+                .body(body);
     }
 }
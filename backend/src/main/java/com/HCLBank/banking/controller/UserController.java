@@ -23,6 +23,13 @@ public class UserController {
         return ResponseEntity.ok(userService.searchByUpiId(upiId));
     }
 
+    // Payees whose UPI id, name or a word of their name starts with q; never the whole directory
+    @GetMapping("/search/typeahead")
+    public ResponseEntity<List<UserSearchResponseDTO>> searchPayees(@RequestParam(required = false) String q,
+                                                                    @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(userService.searchPayees(q, limit));
+    }
+
     @PostMapping("/kyc/submit")
     public ResponseEntity<String> submitKyc() {
         String email = SecurityContextHolder.getContext().getAuthentication().getName();
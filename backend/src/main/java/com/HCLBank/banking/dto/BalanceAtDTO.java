@@ -0,0 +1,20 @@
+package com.HCLBank.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BalanceAtDTO {
+    private Long accountId;
+    private LocalDateTime at;
+    private BigDecimal balance;
+    private Long transactionId; // ledger row the balance was read from; null when the account had none
+}
@@ -0,0 +1,18 @@
+package com.HCLBank.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BatchTransferResponseDTO {
+    private int succeeded;
+    private int failed;
+    private List<TransferResultDTO> results;
+}
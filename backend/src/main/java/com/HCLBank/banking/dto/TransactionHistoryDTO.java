@@ -18,4 +18,5 @@ public class TransactionHistoryDTO {
     private String type; // DEBIT / CREDIT
     private String otherParty; // Receiver/Sender
     private String status;
+    private BigDecimal balanceAfter; // null on older entries until the running balance backfill has run
 }
@@ -0,0 +1,17 @@
+package com.HCLBank.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransactionHistoryPageDTO {
+    private List<TransactionHistoryDTO> items;
+    private String nextCursor; // pass back as ?cursor= for the next page; null on the last page
+}
@@ -0,0 +1,16 @@
+package com.HCLBank.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class UpiPaymentRequestDTO {
+    private Long sourceAccountId;
+    private String upiId;
+    private BigDecimal amount;
+}
@@ -0,0 +1,21 @@
+package com.HCLBank.banking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class UpiPaymentResponseDTO {
+    private Long sourceAccountId;
+    private Long targetAccountId;
+    private String upiId;
+    private String payeeName;
+    private BigDecimal amount;
+    private String status;
+}
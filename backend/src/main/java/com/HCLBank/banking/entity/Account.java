@@ -13,7 +13,9 @@ import java.math.BigDecimal;
 public class Account {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "account_id_gen")
+    @TableGenerator(name = "account_id_gen", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "account", allocationSize = 50)
     @Column(name = "account_id")
     private Long accountId;
 
@@ -32,4 +34,8 @@ public class Account {
     @ManyToOne
     @JoinColumn(name = "customer_id")
     private Customer customer;
+
+    @Version
+    @Column(name = "version")
+    private long version;
 }
@@ -15,7 +15,9 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 public class Customer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "customer_id_gen")
+    @TableGenerator(name = "customer_id_gen", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "customer", allocationSize = 50)
     @Column(name = "customer_id")
     private Long customerId;
 
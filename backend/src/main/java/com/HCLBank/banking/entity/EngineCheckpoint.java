@@ -0,0 +1,22 @@
+package com.HCLBank.banking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Data
+@Entity
+@Table(name = "engine_checkpoint")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EngineCheckpoint {
+
+    @Id
+    @Column(name = "partition_id")
+    private Integer partitionId;
+
+    // Highest journal sequence of this partition whose effects are committed to account/transactions
+    @Column(name = "last_sequence", nullable = false)
+    private long lastSequence;
+}
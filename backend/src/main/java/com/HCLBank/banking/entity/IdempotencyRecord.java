@@ -0,0 +1,34 @@
+package com.HCLBank.banking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "idempotency_key", indexes = {
+        // Retention purge deletes by age
+        @Index(name = "idx_idempotency_key_created_at", columnList = "created_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+    // Operation, principal and client key, so two users or two endpoints never share a key
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body; a reused key with a different body is rejected
+    @Column(name = "request_hash", length = 64, nullable = false)
+    private String requestHash;
+
+    // Null while the request holding the key is still running, or if its response could not be stored
+    @Column(name = "response_body", length = 4000)
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,31 @@
+package com.HCLBank.banking.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "revoked_token")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    // "jti:" plus the id of one revoked token, or "sub:" plus the email whose older tokens are all revoked
+    @Id
+    @Column(name = "revocation_key", length = 255)
+    private String revocationKey;
+
+    // Only for sub: rows; tokens issued at or before this instant are rejected
+    @Column(name = "issued_before")
+    private LocalDateTime issuedBefore;
+
+    // Once every token the row can match has expired, the row is purged
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(name = "revoked_at", nullable = false)
+    private LocalDateTime revokedAt;
+}
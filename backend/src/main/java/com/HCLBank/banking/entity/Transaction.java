@@ -7,7 +7,10 @@ import java.math.BigDecimal;
 
 @Data
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_source_date", columnList = "source_account_id, transaction_date, transaction_id"),
+        @Index(name = "idx_transactions_target_date", columnList = "target_account_id, transaction_date, transaction_id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,7 +18,9 @@ import java.math.BigDecimal;
 public class Transaction {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "transaction_id_gen")
+    @TableGenerator(name = "transaction_id_gen", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "transactions", allocationSize = 50)
     @Column(name = "transaction_id")
     private Long transactionId;
 
@@ -32,12 +37,23 @@ public class Transaction {
     @Column(name = "remarks")
     private String remarks;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "source_account_id")
     private Account sourceAccount;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "target_account_id")
     private Account targetAccount;
+
+    // Balance of each side right after this entry was posted; null until backfilled on older rows
+    @Column(name = "source_balance_after")
+    private BigDecimal sourceBalanceAfter;
+
+    @Column(name = "target_balance_after")
+    private BigDecimal targetBalanceAfter;
+
+    // Set on TRANSFER rows, which carry both accounts; deposits and withdrawals leave it null
+    @Column(name = "transfer_id", length = 36, unique = true)
+    private String transferId;
 }
 
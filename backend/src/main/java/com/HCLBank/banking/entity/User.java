@@ -13,7 +13,9 @@ import lombok.*;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "user_id_gen")
+    @TableGenerator(name = "user_id_gen", table = "id_generator", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "user", allocationSize = 50)
     @Column(name = "user_id")
     private Long userId;
 
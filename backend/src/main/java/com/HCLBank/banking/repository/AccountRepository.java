@@ -1,12 +1,40 @@
 package com.HCLBank.banking.repository;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.HCLBank.banking.entity.Account;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 public interface AccountRepository extends JpaRepository<Account, Long> {
 
     List<Account> findByCustomerCustomerId(Long customerId);
 
+    // Guarded debit: affects no rows when the account is missing or the balance is too low
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account a SET a.balance = a.balance - :amount, a.version = a.version + 1 " +
+            "WHERE a.accountId = :accountId AND a.balance >= :amount")
+    int debit(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account a SET a.balance = COALESCE(a.balance, 0) + :amount, a.version = a.version + 1 " +
+            "WHERE a.accountId = :accountId")
+    int credit(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT a FROM Account a WHERE a.accountId = :accountId")
+    Optional<Account> findByIdForUpdate(@Param("accountId") Long accountId);
+
+    @Query("SELECT a.balance FROM Account a WHERE a.accountId = :accountId")
+    Optional<BigDecimal> findBalanceById(@Param("accountId") Long accountId);
+
+    @Query("SELECT a.accountName FROM Account a WHERE a.accountId = :accountId")
+    Optional<String> findAccountNameById(@Param("accountId") Long accountId);
+
 }
@@ -0,0 +1,116 @@
+package com.HCLBank.banking.repository;
+
+import com.HCLBank.banking.entity.Role;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Set-based duplicate checks and batched inserts for bulk customer onboarding (the CSV import
+ * and the synthetic data generator). One chunk of customers costs three IN queries and three
+ * JDBC batches instead of five statements a row.
+ */
+@Repository
+public class CustomerImportJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final IdBlockAllocator idBlockAllocator;
+
+    public CustomerImportJdbcRepository(JdbcTemplate jdbcTemplate, IdBlockAllocator idBlockAllocator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.idBlockAllocator = idBlockAllocator;
+    }
+
+    public Set<String> existingEmails(Collection<String> emails) {
+        return existing("email", emails);
+    }
+
+    public Set<String> existingUserNames(Collection<String> userNames) {
+        return existing("user_name", userNames);
+    }
+
+    public Set<String> existingUpiIds(Collection<String> upiIds) {
+        return existing("upi_id", upiIds);
+    }
+
+    /**
+     * Customer, user and account rows for each entry, ids taken from one block per table. The
+     * n-th entry gets the n-th id of each block, so the returned first ids locate every row.
+     */
+    public InsertedBlock insert(List<ImportedCustomer> customers) {
+        if (customers.isEmpty()) {
+            return new InsertedBlock(0, 0);
+        }
+        long customerId = idBlockAllocator.allocate(IdBlockAllocator.CUSTOMER, customers.size());
+        long userId = idBlockAllocator.allocate(IdBlockAllocator.USER, customers.size());
+        long accountId = idBlockAllocator.allocate(IdBlockAllocator.ACCOUNT, customers.size());
+        InsertedBlock block = new InsertedBlock(customerId, accountId);
+        List<Object[]> customerRows = new ArrayList<>(customers.size());
+        List<Object[]> userRows = new ArrayList<>(customers.size());
+        List<Object[]> accountRows = new ArrayList<>(customers.size());
+        for (ImportedCustomer customer : customers) {
+            customerRows.add(new Object[]{customerId, customer.userName()});
+            userRows.add(new Object[]{userId++, customer.userName(), customer.email(), Role.CUSTOMER.name(),
+                    customer.upiId(), customer.kycCompleted(), customer.passwordHash(), customerId});
+            accountRows.add(new Object[]{accountId++, customer.userName() + "'s Account", customer.accountType(),
+                    customer.openingBalance(), customerId});
+            customerId++;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO customer (customer_id, customer_name) VALUES (?, ?)", customerRows);
+        jdbcTemplate.batchUpdate("INSERT INTO user (user_id, user_name, email, role, upi_id, kyc_completed, user_pwd, " +
+                "customer_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", userRows);
+        jdbcTemplate.batchUpdate("INSERT INTO account (account_id, account_name, account_type, balance, customer_id, " +
+                "version) VALUES (?, ?, ?, ?, ?, 0)", accountRows);
+        return block;
+    }
+
+    // Further accounts for existing customers; returns the first id, the rest follow in order
+    public long insertAccounts(List<NewAccount> accounts) {
+        if (accounts.isEmpty()) {
+            return 0;
+        }
+        long firstId = idBlockAllocator.allocate(IdBlockAllocator.ACCOUNT, accounts.size());
+        long accountId = firstId;
+        List<Object[]> rows = new ArrayList<>(accounts.size());
+        for (NewAccount account : accounts) {
+            rows.add(new Object[]{accountId++, account.accountName(), account.accountType(), account.balance(),
+                    account.customerId()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO account (account_id, account_name, account_type, balance, customer_id, " +
+                "version) VALUES (?, ?, ?, ?, ?, 0)", rows);
+        return firstId;
+    }
+
+    private Set<String> existing(String column, Collection<String> values) {
+        Set<String> found = new HashSet<>();
+        if (values.isEmpty()) {
+            return found;
+        }
+        namedParameterJdbcTemplate.query("SELECT " + column + " FROM user WHERE " + column + " IN (:values)",
+                new MapSqlParameterSource("values", values),
+                rs -> {
+                    found.add(rs.getString(1));
+                });
+        return found;
+    }
+
+    public record InsertedBlock(long firstCustomerId, long firstAccountId) {
+    }
+
+    public record NewAccount(long customerId, String accountName, String accountType, BigDecimal balance) {
+    }
+
+    public record ImportedCustomer(String userName, String email, String passwordHash, String upiId,
+                                   boolean kycCompleted, String accountType, BigDecimal openingBalance) {
+    }
+}
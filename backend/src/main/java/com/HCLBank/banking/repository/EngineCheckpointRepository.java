@@ -0,0 +1,7 @@
+package com.HCLBank.banking.repository;
+
+import com.HCLBank.banking.entity.EngineCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface EngineCheckpointRepository extends JpaRepository<EngineCheckpoint, Integer> {
+}
@@ -0,0 +1,75 @@
+package com.HCLBank.banking.repository;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+
+/**
+ * Hands out blocks of ids from the id_generator table shared with the entities' table
+ * generators, so JDBC batch inserts and Hibernate inserts never collide. Each row holds the
+ * last id handed out for one table, which is how Hibernate's pooled-lo table generator stores it.
+ */
+@Repository
+@DependsOn("entityManagerFactory")
+public class IdBlockAllocator {
+
+    public static final String TABLE = "id_generator";
+    public static final String TRANSACTIONS = "transactions";
+    public static final String ACCOUNT = "account";
+    public static final String CUSTOMER = "customer";
+    public static final String USER = "user";
+
+    // Generator row -> table and id column it allocates for
+    private static final Map<String, String[]> SEGMENTS = Map.of(
+            TRANSACTIONS, new String[]{"transactions", "transaction_id"},
+            ACCOUNT, new String[]{"account", "account_id"},
+            CUSTOMER, new String[]{"customer", "customer_id"},
+            USER, new String[]{"user", "user_id"}
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate allocationTransaction;
+
+    public IdBlockAllocator(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Allocation commits on its own so the generator row is not locked for the caller's whole transaction
+        this.allocationTransaction = new TransactionTemplate(transactionManager);
+        this.allocationTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Moves every generator past the ids already in its table. Rows written while the
+     * columns were AUTO_INCREMENT would otherwise be handed out again.
+     */
+    @PostConstruct
+    public void alignWithExistingRows() {
+        allocationTransaction.executeWithoutResult(status -> SEGMENTS.forEach((segment, target) -> {
+            Long lastUsed = jdbcTemplate.queryForObject(
+                    "SELECT COALESCE(MAX(" + target[1] + "), 0) FROM " + target[0], Long.class);
+            Integer rows = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM " + TABLE + " WHERE sequence_name = ?", Integer.class, segment);
+            if (rows == null || rows == 0) {
+                jdbcTemplate.update("INSERT INTO " + TABLE + " (sequence_name, next_val) VALUES (?, ?)", segment, lastUsed);
+            } else {
+                jdbcTemplate.update("UPDATE " + TABLE + " SET next_val = ? WHERE sequence_name = ? AND next_val < ?",
+                        lastUsed, segment, lastUsed);
+            }
+        }));
+    }
+
+    // First id of a block of count consecutive ids
+    public long allocate(String segment, int count) {
+        Long last = allocationTransaction.execute(status -> {
+            jdbcTemplate.update("UPDATE " + TABLE + " SET next_val = next_val + ? WHERE sequence_name = ?", count, segment);
+            return jdbcTemplate.queryForObject(
+                    "SELECT next_val FROM " + TABLE + " WHERE sequence_name = ?", Long.class, segment);
+        });
+        return last - count + 1;
+    }
+}
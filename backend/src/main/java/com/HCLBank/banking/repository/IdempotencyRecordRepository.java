@@ -0,0 +1,37 @@
+package com.HCLBank.banking.repository;
+
+import com.HCLBank.banking.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    // Plain INSERT rather than save(): a concurrent duplicate must fail on the primary key, not be merged over
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_key (idempotency_key, request_hash, response_body, created_at) " +
+            "VALUES (:key, :requestHash, :responseBody, :createdAt)", nativeQuery = true)
+    void insert(@Param("key") String key,
+                @Param("requestHash") String requestHash,
+                @Param("responseBody") String responseBody,
+                @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query(value = "UPDATE idempotency_key SET response_body = :responseBody WHERE idempotency_key = :key", nativeQuery = true)
+    void storeResponse(@Param("key") String key, @Param("responseBody") String responseBody);
+
+    // Only an unfinished claim; a stored response is never given up
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_key WHERE idempotency_key = :key AND response_body IS NULL", nativeQuery = true)
+    void deleteClaim(@Param("key") String key);
+
+    // Bounded, so one purge never holds locks on the whole table
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM idempotency_key WHERE created_at < :cutoff LIMIT :limit", nativeQuery = true)
+    int deleteCreatedBefore(@Param("cutoff") LocalDateTime cutoff, @Param("limit") int limit);
+}
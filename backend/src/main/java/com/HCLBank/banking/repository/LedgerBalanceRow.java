@@ -0,0 +1,21 @@
+package com.HCLBank.banking.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One ledger row as seen from an account, with the account's balance right after it.
+ * balanceAfter is null on rows the running balance backfill has not reached yet.
+ */
+public interface LedgerBalanceRow {
+
+    Long getTransactionId();
+
+    LocalDateTime getTransactionDate();
+
+    BigDecimal getAmount();
+
+    String getDirection();
+
+    BigDecimal getBalanceAfter();
+}
@@ -0,0 +1,191 @@
+package com.HCLBank.banking.repository;
+
+import com.HCLBank.banking.entity.Account;
+import com.HCLBank.banking.entity.Transaction;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Set-based account and ledger statements for bulk paths, issued as JDBC batches so a
+ * few hundred postings cost a handful of round trips.
+ */
+@Repository
+public class LedgerJdbcRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final IdBlockAllocator idBlockAllocator;
+
+    public LedgerJdbcRepository(JdbcTemplate jdbcTemplate, IdBlockAllocator idBlockAllocator) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.idBlockAllocator = idBlockAllocator;
+    }
+
+    // Locks rows in ascending id order in one statement, matching the order used by single transfers
+    public Map<Long, Account> lockAccounts(Collection<Long> accountIds) {
+        Map<Long, Account> accounts = new LinkedHashMap<>();
+        if (accountIds.isEmpty()) {
+            return accounts;
+        }
+        namedParameterJdbcTemplate.query(
+                "SELECT account_id, account_name, balance FROM account WHERE account_id IN (:ids) " +
+                        "ORDER BY account_id FOR UPDATE",
+                new MapSqlParameterSource("ids", accountIds),
+                rs -> {
+                    Account account = new Account();
+                    account.setAccountId(rs.getLong("account_id"));
+                    account.setAccountName(rs.getString("account_name"));
+                    BigDecimal balance = rs.getBigDecimal("balance");
+                    account.setBalance(balance == null ? BigDecimal.ZERO : balance);
+                    accounts.put(account.getAccountId(), account);
+                });
+        return accounts;
+    }
+
+    public void updateBalances(Collection<Account> accounts) {
+        List<Object[]> rows = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            rows.add(new Object[]{account.getBalance(), account.getAccountId()});
+        }
+        jdbcTemplate.batchUpdate("UPDATE account SET balance = ?, version = version + 1 WHERE account_id = ?", rows);
+    }
+
+    // Assigns ids from one allocated block, then inserts every row in a single batch
+    public void insertTransactions(List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return;
+        }
+        long nextId = idBlockAllocator.allocate(IdBlockAllocator.TRANSACTIONS, transactions.size());
+        List<Object[]> rows = new ArrayList<>(transactions.size());
+        for (Transaction t : transactions) {
+            t.setTransactionId(nextId++);
+            rows.add(new Object[]{
+                    t.getTransactionId(),
+                    t.getTransactionType(),
+                    t.getTransactionAmount(),
+                    Timestamp.valueOf(t.getTransactionDate()),
+                    t.getRemarks(),
+                    t.getSourceAccount() == null ? null : t.getSourceAccount().getAccountId(),
+                    t.getTargetAccount() == null ? null : t.getTargetAccount().getAccountId(),
+                    t.getSourceBalanceAfter(),
+                    t.getTargetBalanceAfter(),
+                    t.getTransferId()
+            });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (transaction_id, transaction_type, transaction_amount, " +
+                "transaction_date, remarks, source_account_id, target_account_id, source_balance_after, " +
+                "target_balance_after, transfer_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", rows);
+    }
+
+    /**
+     * Folds legacy transfer pairs after the given id into single TRANSFER rows. Older transfers
+     * wrote a "Sent to X" DEBIT immediately followed by a "Received from Y" CREDIT of the same
+     * amount. Ids came from IDENTITY, so concurrent transfers of the same amount could interleave;
+     * a pair is therefore merged only when X is the name of the credited account, Y the name of
+     * the debited account, and the credit was written at most maxGapSeconds after the debit.
+     * Anything else stays as two legacy rows, which history still reads. Returns the ids of the
+     * rows that now hold the merged transfers, in ascending order.
+     */
+    public List<Long> mergeLegacyTransferPairs(long afterId, int limit, int maxGapSeconds) {
+        List<Object[]> merges = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        List<Long> mergedIds = new ArrayList<>();
+        jdbcTemplate.query("SELECT d.transaction_id AS debit_id, c.transaction_id AS credit_id, c.target_account_id, " +
+                        "c.target_balance_after " +
+                        "FROM transactions d JOIN transactions c ON c.transaction_id = d.transaction_id + 1 " +
+                        "JOIN account sa ON sa.account_id = d.source_account_id " +
+                        "JOIN account ta ON ta.account_id = c.target_account_id " +
+                        "WHERE d.transaction_id > ? AND d.transaction_type = 'DEBIT' AND d.target_account_id IS NULL " +
+                        "AND d.remarks = CONCAT('Sent to ', ta.account_name) AND c.transaction_type = 'CREDIT' " +
+                        "AND c.source_account_id IS NULL AND c.remarks = CONCAT('Received from ', sa.account_name) " +
+                        "AND c.transaction_amount = d.transaction_amount " +
+                        "AND TIMESTAMPDIFF(SECOND, d.transaction_date, c.transaction_date) BETWEEN 0 AND ? " +
+                        "ORDER BY d.transaction_id LIMIT ?",
+                rs -> {
+                    long debitId = rs.getLong("debit_id");
+                    merges.add(new Object[]{rs.getLong("target_account_id"), rs.getBigDecimal("target_balance_after"),
+                            UUID.randomUUID().toString(), debitId});
+                    deletes.add(new Object[]{rs.getLong("credit_id")});
+                    mergedIds.add(debitId);
+                },
+                afterId, maxGapSeconds, limit);
+        if (mergedIds.isEmpty()) {
+            return mergedIds;
+        }
+        jdbcTemplate.batchUpdate("UPDATE transactions SET transaction_type = 'TRANSFER', target_account_id = ?, " +
+                "target_balance_after = ?, transfer_id = ?, remarks = NULL WHERE transaction_id = ?", merges);
+        jdbcTemplate.batchUpdate("DELETE FROM transactions WHERE transaction_id = ?", deletes);
+        return mergedIds;
+    }
+
+    public List<Long> accountIdsAfter(long afterId, int limit) {
+        return jdbcTemplate.queryForList("SELECT account_id FROM account WHERE account_id > ? ORDER BY account_id LIMIT ?",
+                Long.class, afterId, limit);
+    }
+
+    // Locking the account holds off postings, so its balance is the balance after its newest ledger row
+    public BigDecimal lockBalance(long accountId) {
+        List<BigDecimal> balances = jdbcTemplate.queryForList(
+                "SELECT COALESCE(balance, 0) FROM account WHERE account_id = ? FOR UPDATE", BigDecimal.class, accountId);
+        return balances.isEmpty() ? BigDecimal.ZERO : balances.get(0);
+    }
+
+    /**
+     * Ledger rows of an account strictly before the (beforeDate, beforeId) position, newest first,
+     * each with the running balance stored for the account's side of the row.
+     */
+    public List<RunningBalanceRow> runningBalancesBefore(long accountId, LocalDateTime beforeDate, long beforeId, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("accountId", accountId)
+                .addValue("beforeDate", Timestamp.valueOf(beforeDate))
+                .addValue("beforeId", beforeId)
+                .addValue("limit", limit);
+        return namedParameterJdbcTemplate.query(
+                "(SELECT t.transaction_id, t.transaction_date, t.transaction_amount, TRUE AS debit, " +
+                        "t.source_balance_after AS balance_after FROM transactions t " +
+                        "WHERE t.source_account_id = :accountId AND (t.transaction_date < :beforeDate " +
+                        "OR (t.transaction_date = :beforeDate AND t.transaction_id < :beforeId)) " +
+                        "ORDER BY t.transaction_date DESC, t.transaction_id DESC LIMIT :limit) " +
+                        "UNION ALL " +
+                        "(SELECT t.transaction_id, t.transaction_date, t.transaction_amount, FALSE AS debit, " +
+                        "t.target_balance_after AS balance_after FROM transactions t " +
+                        "WHERE t.target_account_id = :accountId AND (t.transaction_date < :beforeDate " +
+                        "OR (t.transaction_date = :beforeDate AND t.transaction_id < :beforeId)) " +
+                        "ORDER BY t.transaction_date DESC, t.transaction_id DESC LIMIT :limit) " +
+                        "ORDER BY transaction_date DESC, transaction_id DESC LIMIT :limit",
+                params,
+                (rs, rowNum) -> new RunningBalanceRow(
+                        rs.getLong("transaction_id"),
+                        rs.getTimestamp("transaction_date").toLocalDateTime(),
+                        rs.getBigDecimal("transaction_amount"),
+                        rs.getBoolean("debit"),
+                        rs.getBigDecimal("balance_after")));
+    }
+
+    // Each entry is {balance, transactionId}
+    public void updateRunningBalances(List<Object[]> sourceBalances, List<Object[]> targetBalances) {
+        if (!sourceBalances.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE transactions SET source_balance_after = ? WHERE transaction_id = ?", sourceBalances);
+        }
+        if (!targetBalances.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE transactions SET target_balance_after = ? WHERE transaction_id = ?", targetBalances);
+        }
+    }
+
+    public record RunningBalanceRow(long transactionId, LocalDateTime transactionDate, BigDecimal amount,
+                                    boolean debit, BigDecimal balanceAfter) {
+    }
+}
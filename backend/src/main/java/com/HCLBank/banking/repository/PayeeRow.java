@@ -0,0 +1,16 @@
+package com.HCLBank.banking.repository;
+
+/**
+ * A customer as a payment target: display name (customer name, else user name) and the
+ * customer's first account, which is where payments to the UPI id are credited.
+ */
+public interface PayeeRow {
+
+    Long getUserId();
+
+    String getUpiId();
+
+    String getName();
+
+    Long getAccountId();
+}
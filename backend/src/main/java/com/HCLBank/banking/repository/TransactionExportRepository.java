@@ -0,0 +1,135 @@
+package com.HCLBank.banking.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+
+/**
+ * Reads an account's full history oldest first, handing each row to the caller as it is read
+ * so a statement of any length is exported in constant memory. Debits and credits are read in
+ * keyset pages, each page already in (date, id) order from its (account, date, id) index, and
+ * merged here: one ordered UNION would make the server sort the whole statement into a
+ * temporary table before sending the first row. Every page is a short query of its own, so an
+ * export holds a pooled connection only while a page is read, never while the client is slow.
+ */
+@Repository
+public class TransactionExportRepository {
+
+    private static final String DEBITS =
+            "SELECT t.transaction_id, t.transaction_date, t.transaction_amount, t.remarks, " +
+                    "c.account_name, t.source_balance_after AS balance_after " +
+                    "FROM transactions t LEFT JOIN account c ON c.account_id = t.target_account_id " +
+                    "WHERE t.source_account_id = ? " +
+                    "AND (t.transaction_date > ? OR (t.transaction_date = ? AND t.transaction_id > ?)) " +
+                    "AND t.transaction_date < ? " +
+                    "ORDER BY t.transaction_date, t.transaction_id LIMIT ?";
+
+    private static final String CREDITS =
+            "SELECT t.transaction_id, t.transaction_date, t.transaction_amount, t.remarks, " +
+                    "c.account_name, t.target_balance_after AS balance_after " +
+                    "FROM transactions t LEFT JOIN account c ON c.account_id = t.source_account_id " +
+                    "WHERE t.target_account_id = ? " +
+                    "AND (t.transaction_date > ? OR (t.transaction_date = ? AND t.transaction_id > ?)) " +
+                    "AND t.transaction_date < ? " +
+                    "ORDER BY t.transaction_date, t.transaction_id LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int pageSize;
+
+    public TransactionExportRepository(JdbcTemplate jdbcTemplate,
+                                       @Value("${banking.export.page-size:5000}") int pageSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.pageSize = pageSize;
+    }
+
+    // Oldest first, as a statement reads; same row shape as the history page query
+    public void streamHistory(Long accountId, boolean debits, boolean credits,
+                              LocalDateTime from, LocalDateTime to,
+                              Consumer<TransactionHistoryRow> consumer) {
+        Pages debitRows = debits ? new Pages(DEBITS, "DEBIT", accountId, from, to) : null;
+        Pages creditRows = credits ? new Pages(CREDITS, "CREDIT", accountId, from, to) : null;
+        StreamedRow debit = debitRows == null ? null : debitRows.next();
+        StreamedRow credit = creditRows == null ? null : creditRows.next();
+        while (debit != null || credit != null) {
+            if (credit == null || (debit != null && isBefore(debit, credit))) {
+                consumer.accept(debit);
+                debit = debitRows.next();
+            } else {
+                consumer.accept(credit);
+                credit = creditRows.next();
+            }
+        }
+    }
+
+    private static boolean isBefore(StreamedRow a, StreamedRow b) {
+        int byDate = a.getTransactionDate().compareTo(b.getTransactionDate());
+        return byDate != 0 ? byDate < 0 : a.getTransactionId() <= b.getTransactionId();
+    }
+
+    // One direction's rows, fetched a page at a time after the last (date, id) handed out
+    private final class Pages {
+        private final String sql;
+        private final String direction;
+        private final Long accountId;
+        private final Timestamp to;
+        private final Deque<StreamedRow> page = new ArrayDeque<>();
+        private Timestamp afterDate;
+        private long afterId = -1;
+        private boolean exhausted;
+
+        private Pages(String sql, String direction, Long accountId, LocalDateTime from, LocalDateTime to) {
+            this.sql = sql;
+            this.direction = direction;
+            this.accountId = accountId;
+            this.afterDate = Timestamp.valueOf(from);
+            this.to = Timestamp.valueOf(to);
+        }
+
+        private StreamedRow next() {
+            if (page.isEmpty() && !exhausted) {
+                fetch();
+            }
+            return page.pollFirst();
+        }
+
+        private void fetch() {
+            jdbcTemplate.query(sql, rs -> {
+                page.addLast(new StreamedRow(
+                        rs.getLong("transaction_id"),
+                        rs.getTimestamp("transaction_date").toLocalDateTime(),
+                        rs.getBigDecimal("transaction_amount"),
+                        direction,
+                        rs.getString("remarks"),
+                        rs.getString("account_name"),
+                        rs.getBigDecimal("balance_after")));
+            }, accountId, afterDate, afterDate, afterId, to, pageSize);
+            exhausted = page.size() < pageSize;
+            if (!page.isEmpty()) {
+                StreamedRow last = page.peekLast();
+                afterDate = Timestamp.valueOf(last.getTransactionDate());
+                afterId = last.getTransactionId();
+            }
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class StreamedRow implements TransactionHistoryRow {
+        private final Long transactionId;
+        private final LocalDateTime transactionDate;
+        private final BigDecimal amount;
+        private final String direction;
+        private final String remarks;
+        private final String counterpartyName;
+        private final BigDecimal balanceAfter;
+    }
+}
@@ -0,0 +1,26 @@
+package com.HCLBank.banking.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One history line as seen from the requested account: direction is DEBIT when the account
+ * is the row's source, counterpartyName is the other account of a two-sided row, and
+ * balanceAfter is the account's running balance after the row (null until backfilled).
+ */
+public interface TransactionHistoryRow {
+
+    Long getTransactionId();
+
+    LocalDateTime getTransactionDate();
+
+    BigDecimal getAmount();
+
+    String getDirection();
+
+    String getRemarks();
+
+    String getCounterpartyName();
+
+    BigDecimal getBalanceAfter();
+}
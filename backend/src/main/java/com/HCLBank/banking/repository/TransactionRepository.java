@@ -1,10 +1,74 @@
 package com.HCLBank.banking.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import com.HCLBank.banking.entity.Transaction;
+
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    List<Transaction> findBySourceAccountAccountIdOrTargetAccountAccountIdOrderByTransactionDateDesc(Long sourceAccountId, Long targetAccountId);
-}
+    /**
+     * Keyset page of an account's history, newest first, strictly after the (beforeDate, beforeId)
+     * cursor. Each direction is a range scan on its (account, date, id) index joined to the
+     * counterparty's name, and the two are merged in the database, so the page is one statement.
+     */
+    @Query(value = "(SELECT t.transaction_id AS transactionId, t.transaction_date AS transactionDate, " +
+            "t.transaction_amount AS amount, 'DEBIT' AS direction, t.remarks AS remarks, " +
+            "c.account_name AS counterpartyName, t.source_balance_after AS balanceAfter " +
+            "FROM transactions t LEFT JOIN account c ON c.account_id = t.target_account_id " +
+            "WHERE :debits = TRUE AND t.source_account_id = :accountId " +
+            "AND t.transaction_date >= :from AND t.transaction_date < :to " +
+            "AND (t.transaction_date < :beforeDate OR (t.transaction_date = :beforeDate AND t.transaction_id < :beforeId)) " +
+            "ORDER BY t.transaction_date DESC, t.transaction_id DESC LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT t.transaction_id AS transactionId, t.transaction_date AS transactionDate, " +
+            "t.transaction_amount AS amount, 'CREDIT' AS direction, t.remarks AS remarks, " +
+            "c.account_name AS counterpartyName, t.target_balance_after AS balanceAfter " +
+            "FROM transactions t LEFT JOIN account c ON c.account_id = t.source_account_id " +
+            "WHERE :credits = TRUE AND t.target_account_id = :accountId " +
+            "AND t.transaction_date >= :from AND t.transaction_date < :to " +
+            "AND (t.transaction_date < :beforeDate OR (t.transaction_date = :beforeDate AND t.transaction_id < :beforeId)) " +
+            "ORDER BY t.transaction_date DESC, t.transaction_id DESC LIMIT :limit) " +
+            "ORDER BY transactionDate DESC, transactionId DESC LIMIT :limit", nativeQuery = true)
+    List<TransactionHistoryRow> findHistoryPage(@Param("accountId") Long accountId,
+                                                @Param("debits") boolean debits,
+                                                @Param("credits") boolean credits,
+                                                @Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to,
+                                                @Param("beforeDate") LocalDateTime beforeDate,
+                                                @Param("beforeId") Long beforeId,
+                                                @Param("limit") int limit);
 
+    /**
+     * The account's newest ledger row at or before the given time, found with one backward
+     * probe on each direction's (account, date, id) index.
+     */
+    @Query(value = "(SELECT t.transaction_id AS transactionId, t.transaction_date AS transactionDate, " +
+            "t.transaction_amount AS amount, 'DEBIT' AS direction, t.source_balance_after AS balanceAfter " +
+            "FROM transactions t WHERE t.source_account_id = :accountId AND t.transaction_date <= :at " +
+            "ORDER BY t.transaction_date DESC, t.transaction_id DESC LIMIT 1) " +
+            "UNION ALL " +
+            "(SELECT t.transaction_id AS transactionId, t.transaction_date AS transactionDate, " +
+            "t.transaction_amount AS amount, 'CREDIT' AS direction, t.target_balance_after AS balanceAfter " +
+            "FROM transactions t WHERE t.target_account_id = :accountId AND t.transaction_date <= :at " +
+            "ORDER BY t.transaction_date DESC, t.transaction_id DESC LIMIT 1) " +
+            "ORDER BY transactionDate DESC, transactionId DESC LIMIT 1", nativeQuery = true)
+    List<LedgerBalanceRow> findLatestBalanceAt(@Param("accountId") Long accountId,
+                                               @Param("at") LocalDateTime at);
+
+    // The account's oldest ledger row after the given time, for points before the first row
+    @Query(value = "(SELECT t.transaction_id AS transactionId, t.transaction_date AS transactionDate, " +
+            "t.transaction_amount AS amount, 'DEBIT' AS direction, t.source_balance_after AS balanceAfter " +
+            "FROM transactions t WHERE t.source_account_id = :accountId AND t.transaction_date > :at " +
+            "ORDER BY t.transaction_date, t.transaction_id LIMIT 1) " +
+            "UNION ALL " +
+            "(SELECT t.transaction_id AS transactionId, t.transaction_date AS transactionDate, " +
+            "t.transaction_amount AS amount, 'CREDIT' AS direction, t.target_balance_after AS balanceAfter " +
+            "FROM transactions t WHERE t.target_account_id = :accountId AND t.transaction_date > :at " +
+            "ORDER BY t.transaction_date, t.transaction_id LIMIT 1) " +
+            "ORDER BY transactionDate, transactionId LIMIT 1", nativeQuery = true)
+    List<LedgerBalanceRow> findEarliestBalanceAfter(@Param("accountId") Long accountId,
+                                                    @Param("at") LocalDateTime at);
+}
@@ -1,14 +1,53 @@
 package com.HCLBank.banking.repository;
 
+import com.HCLBank.banking.entity.Role;
 import com.HCLBank.banking.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    // The customer is an eager association; joining it keeps a login to one statement
+    @EntityGraph(attributePaths = "customer")
     Optional<User> findByEmail(String email);
+
+    @Query("SELECT u.role FROM User u WHERE u.email = :email")
+    Optional<Role> findRoleByEmail(@Param("email") String email);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.userPwd = :userPwd WHERE u.userId = :userId")
+    int updatePassword(@Param("userId") Long userId, @Param("userPwd") String userPwd);
     Optional<User> findByUserName(String userName);
     Optional<User> findByUpiId(String upiId);
+
+    // Every payee in one statement, instead of loading each customer's accounts
+    @Query("SELECT u.userId AS userId, u.upiId AS upiId, COALESCE(c.customerName, u.userName) AS name, " +
+            "MIN(a.accountId) AS accountId " +
+            "FROM User u LEFT JOIN u.customer c LEFT JOIN Account a ON a.customer = c " +
+            "WHERE u.role = :role AND u.upiId IS NOT NULL " +
+            "GROUP BY u.userId, u.upiId, c.customerName, u.userName")
+    List<PayeeRow> findPayees(@Param("role") Role role);
+
+    @Query("SELECT u.userId AS userId, u.upiId AS upiId, COALESCE(c.customerName, u.userName) AS name, " +
+            "MIN(a.accountId) AS accountId " +
+            "FROM User u LEFT JOIN u.customer c LEFT JOIN Account a ON a.customer = c " +
+            "WHERE u.userId = :userId AND u.role = :role AND u.upiId IS NOT NULL " +
+            "GROUP BY u.userId, u.upiId, c.customerName, u.userName")
+    Optional<PayeeRow> findPayee(@Param("userId") Long userId, @Param("role") Role role);
+
+    @Query("SELECT u.userId AS userId, u.upiId AS upiId, COALESCE(c.customerName, u.userName) AS name, " +
+            "MIN(a.accountId) AS accountId " +
+            "FROM User u LEFT JOIN u.customer c LEFT JOIN Account a ON a.customer = c " +
+            "WHERE u.upiId = :upiId " +
+            "GROUP BY u.userId, u.upiId, c.customerName, u.userName")
+    Optional<PayeeRow> findPayeeByUpiId(@Param("upiId") String upiId);
 }
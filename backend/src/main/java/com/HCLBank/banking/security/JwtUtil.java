@@ -1,23 +1,75 @@
 package com.HCLBank.banking.security;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Function;
 
 @Component
 public class JwtUtil {
 
+    public static final long TOKEN_VALIDITY_MS = 1000 * 60 * 60 * 10;
+
     private final String secret = "mysecretkeymysecretkeymysecretkeymysecretkey";
     private final Key key = Keys.hmacShaKeyFor(secret.getBytes());
+    // Immutable and thread-safe, so one parser serves every request
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+    // Claims of tokens whose signature was already checked, keyed by the token's SHA-256; entries
+    // lapse with the token's own exp. Shared between requests, so callers must not modify them.
+    private final Map<String, VerifiedToken> verified;
+
+    private final LongAdder verifiedHits = new LongAdder();
+    private final LongAdder verifications = new LongAdder();
+
+    public JwtUtil(@Value("${banking.security.token-cache.max-entries:10000}") int maxVerifiedTokens) {
+        this.verified = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, VerifiedToken> eldest) {
+                return size() > maxVerifiedTokens;
+            }
+        });
+    }
+
+    /**
+     * The token's claims, verifying its signature and expiry only the first time the token is
+     * seen. Throws the parser's JwtException when the token is invalid or has expired.
+     */
+    public Claims verify(String token) {
+        String hash = hash(token);
+        VerifiedToken cached = verified.get(hash);
+        if (cached != null) {
+            if (cached.expiresAt > System.currentTimeMillis()) {
+                verifiedHits.increment();
+                return cached.claims;
+            }
+            verified.remove(hash);
+        }
+        verifications.increment();
+        Claims claims = parser.parseClaimsJws(token).getBody();
+        if (claims.getExpiration() != null) {
+            verified.put(hash, new VerifiedToken(claims, claims.getExpiration().getTime()));
+        }
+        return claims;
+    }
 
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
@@ -33,11 +85,11 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+        return verify(token);
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private Boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     public String generateToken(UserDetails userDetails) {
@@ -50,14 +102,39 @@ public class JwtUtil {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 60 * 10))
+                .setExpiration(new Date(System.currentTimeMillis() + TOKEN_VALIDITY_MS))
                 .signWith(key, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
+        return validateClaims(verify(token), userDetails);
+    }
+
+    // Same check for claims the caller already got from verify
+    public Boolean validateClaims(Claims claims, UserDetails userDetails) {
+        return (claims.getSubject().equals(userDetails.getUsername()) && !isTokenExpired(claims));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("verifiedHits", verifiedHits.sum());
+        stats.put("verifications", verifications.sum());
+        stats.put("entries", verified.size());
+        return stats;
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private record VerifiedToken(Claims claims, long expiresAt) {
     }
 }
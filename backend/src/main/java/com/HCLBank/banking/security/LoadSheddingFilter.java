@@ -0,0 +1,177 @@
+package com.HCLBank.banking.security;
+
+import com.HCLBank.banking.service.ConnectionPoolMonitor;
+import com.HCLBank.banking.service.DecayingAverage;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control for when the database slows down. Pressure is the worst of three ratios
+ * against their limits: average wait for a pooled connection, threads waiting for one now, and
+ * average latency of admitted requests of bounded size. From a pressure of 1 low-priority routes (listings,
+ * exports, ledger maintenance) get a 503, from normal-shed-factor every other route does too,
+ * and money-moving routes are always admitted, so they keep the pool to themselves.
+ */
+@Component
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    enum Priority { LOW, NORMAL, CRITICAL }
+
+    private final ConnectionPoolMonitor poolMonitor;
+    private final boolean enabled;
+    private final List<RoutePattern> criticalRoutes;
+    private final List<RoutePattern> lowPriorityRoutes;
+    private final List<RoutePattern> unmeasuredRoutes;
+    private final double maxPoolWaitMs;
+    private final int maxPoolWaiters;
+    private final double maxLatencyMs;
+    private final double normalShedFactor;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final DecayingAverage latencyMillis = new DecayingAverage(0.05, TimeUnit.SECONDS.toNanos(2));
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder shedLow = new LongAdder();
+    private final LongAdder shedNormal = new LongAdder();
+
+    public LoadSheddingFilter(ConnectionPoolMonitor poolMonitor,
+                              @Value("${banking.load-shedding.enabled:true}") boolean enabled,
+                              @Value("${banking.load-shedding.critical-routes:}") String criticalRoutes,
+                              @Value("${banking.load-shedding.low-priority-routes:}") String lowPriorityRoutes,
+                              @Value("${banking.load-shedding.unmeasured-routes:}") String unmeasuredRoutes,
+                              @Value("${banking.load-shedding.max-pool-wait-ms:100}") double maxPoolWaitMs,
+                              @Value("${banking.load-shedding.max-pool-waiters:20}") int maxPoolWaiters,
+                              @Value("${banking.load-shedding.max-latency-ms:1000}") double maxLatencyMs,
+                              @Value("${banking.load-shedding.normal-shed-factor:2.0}") double normalShedFactor) {
+        this.poolMonitor = poolMonitor;
+        this.enabled = enabled;
+        this.criticalRoutes = parseRoutes(criticalRoutes);
+        this.lowPriorityRoutes = parseRoutes(lowPriorityRoutes);
+        this.unmeasuredRoutes = parseRoutes(unmeasuredRoutes);
+        this.maxPoolWaitMs = maxPoolWaitMs;
+        this.maxPoolWaiters = maxPoolWaiters;
+        this.maxLatencyMs = maxLatencyMs;
+        this.normalShedFactor = normalShedFactor;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!enabled) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Priority priority = classify(request.getMethod(), path);
+        long start = System.nanoTime();
+        double pressure = pressure(start);
+        if (priority == Priority.LOW && pressure >= 1) {
+            shedLow.increment();
+            reject(response);
+            return;
+        }
+        if (priority == Priority.NORMAL && pressure >= normalShedFactor) {
+            shedNormal.increment();
+            reject(response);
+            return;
+        }
+        inFlight.incrementAndGet();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            inFlight.decrementAndGet();
+            // Exports, listings and batch transfers are slow by nature, since their time grows with their size,
+            // and would read as overload
+            if (priority != Priority.LOW && !matches(unmeasuredRoutes, request.getMethod(), path)) {
+                long end = System.nanoTime();
+                latencyMillis.record((end - start) / 1_000_000.0, end);
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long now = System.nanoTime();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("pressure", pressure(now));
+        stats.put("averagePoolWaitMs", poolMonitor.averageWaitMillis());
+        stats.put("poolWaiters", poolMonitor.pendingThreads());
+        stats.put("activeConnections", poolMonitor.activeConnections());
+        stats.put("maxConnections", poolMonitor.maxConnections());
+        stats.put("poolTimeouts", poolMonitor.timeouts());
+        stats.put("averageLatencyMs", latencyMillis.get(now));
+        stats.put("inFlight", inFlight.get());
+        stats.put("shedLow", shedLow.sum());
+        stats.put("shedNormal", shedNormal.sum());
+        return stats;
+    }
+
+    Priority classify(String method, String path) {
+        if (matches(criticalRoutes, method, path)) {
+            return Priority.CRITICAL;
+        }
+        if (matches(lowPriorityRoutes, method, path)) {
+            return Priority.LOW;
+        }
+        return Priority.NORMAL;
+    }
+
+    private double pressure(long now) {
+        double pressure = Math.max(poolMonitor.averageWaitMillis() / maxPoolWaitMs, latencyMillis.get(now) / maxLatencyMs);
+        if (maxPoolWaiters > 0) {
+            pressure = Math.max(pressure, (double) poolMonitor.pendingThreads() / maxPoolWaiters);
+        }
+        return pressure;
+    }
+
+    private boolean matches(List<RoutePattern> routes, String method, String path) {
+        for (RoutePattern route : routes) {
+            if ((route.method == null || route.method.equalsIgnoreCase(method)) && pathMatcher.match(route.pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader("Retry-After", "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"message\":\"Service is busy, please retry shortly\"}");
+    }
+
+    // Comma-separated Ant patterns, each optionally preceded by an HTTP method: "GET /account"
+    private static List<RoutePattern> parseRoutes(String spec) {
+        List<RoutePattern> parsed = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int space = trimmed.indexOf(' ');
+            parsed.add(space < 0
+                    ? new RoutePattern(null, trimmed)
+                    : new RoutePattern(trimmed.substring(0, space), trimmed.substring(space + 1).trim()));
+        }
+        return parsed;
+    }
+
+    private record RoutePattern(String method, String pattern) {
+    }
+}
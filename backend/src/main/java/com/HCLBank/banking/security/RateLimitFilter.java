@@ -0,0 +1,192 @@
+package com.HCLBank.banking.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-client token buckets in front of the routes listed in banking.rate-limit.routes. Signed-in
+ * callers are limited per user, anonymous ones per IP, each route separately. A bucket is one
+ * atomic timestamp updated by compare-and-set, so the check never locks. Buckets that have
+ * refilled completely hold no information and are swept periodically; while the table is at
+ * its bound, new clients share one overflow bucket per route.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String OVERFLOW_CLIENT = "overflow";
+
+    private final boolean enabled;
+    private final List<RouteLimit> routes;
+    private final int maxBuckets;
+    private final long sweepIntervalNanos;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime());
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private final LongAdder overflowed = new LongAdder();
+
+    public RateLimitFilter(@Value("${banking.rate-limit.enabled:true}") boolean enabled,
+                           @Value("${banking.rate-limit.routes:}") String routes,
+                           @Value("${banking.rate-limit.max-buckets:100000}") int maxBuckets,
+                           @Value("${banking.rate-limit.sweep-interval-ms:10000}") long sweepIntervalMs) {
+        this.enabled = enabled;
+        this.routes = parseRoutes(routes);
+        this.maxBuckets = maxBuckets;
+        this.sweepIntervalNanos = TimeUnit.MILLISECONDS.toNanos(sweepIntervalMs);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RouteLimit route = enabled ? match(request.getRequestURI().substring(request.getContextPath().length())) : null;
+        if (route == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        long now = System.nanoTime();
+        sweepIfDue(now);
+        long waitNanos = bucketFor(route, clientOf(request)).tryAcquire(route, now);
+        if (waitNanos > 0) {
+            rejected.increment();
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"message\":\"Too many requests, retry in " + retryAfterSeconds + " s\"}");
+            return;
+        }
+        allowed.increment();
+        filterChain.doFilter(request, response);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("allowed", allowed.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("buckets", buckets.size());
+        stats.put("maxBuckets", maxBuckets);
+        stats.put("evicted", evicted.sum());
+        stats.put("overflowed", overflowed.sum());
+        return stats;
+    }
+
+    private RouteLimit match(String path) {
+        for (RouteLimit route : routes) {
+            if (pathMatcher.match(route.pattern, path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    // Runs after the JWT filter, so a valid bearer token has already set the user
+    private String clientOf(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private Bucket bucketFor(RouteLimit route, String client) {
+        String key = route.pattern + '|' + client;
+        Bucket bucket = buckets.get(key);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (buckets.size() >= maxBuckets) {
+            overflowed.increment();
+            return buckets.computeIfAbsent(route.pattern + '|' + OVERFLOW_CLIENT, k -> new Bucket());
+        }
+        return buckets.computeIfAbsent(key, k -> new Bucket());
+    }
+
+    // One caller per interval drops the buckets that are full again; the rest carry on
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now - due < 0 || !nextSweep.compareAndSet(due, now + sweepIntervalNanos)) {
+            return;
+        }
+        buckets.entrySet().removeIf(entry -> {
+            boolean idle = entry.getValue().isFull(now);
+            if (idle) {
+                evicted.increment();
+            }
+            return idle;
+        });
+    }
+
+    // "pattern=capacity/seconds" entries separated by commas; the first matching pattern applies
+    private static List<RouteLimit> parseRoutes(String spec) {
+        List<RouteLimit> parsed = new ArrayList<>();
+        for (String entry : spec.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            String[] patternAndLimit = entry.trim().split("=");
+            String[] capacityAndSeconds = patternAndLimit[1].trim().split("/");
+            int capacity = Integer.parseInt(capacityAndSeconds[0].trim());
+            long periodNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(capacityAndSeconds[1].trim()));
+            parsed.add(new RouteLimit(patternAndLimit[0].trim(), capacity, periodNanos / capacity));
+        }
+        return parsed;
+    }
+
+    // capacity requests at once, refilled at one per intervalNanos
+    private record RouteLimit(String pattern, int capacity, long intervalNanos) {
+    }
+
+    /**
+     * Token bucket kept as the instant it will be full again (the generic cell rate algorithm):
+     * each request pushes that instant one interval later, and is refused when it would move
+     * more than capacity intervals past now.
+     */
+    private static final class Bucket {
+        private final AtomicLong fullAt = new AtomicLong(System.nanoTime());
+
+        // 0 when a token was taken, otherwise nanoseconds until one is available
+        private long tryAcquire(RouteLimit route, long now) {
+            while (true) {
+                long current = fullAt.get();
+                long base = current - now < 0 ? now : current;
+                long next = base + route.intervalNanos;
+                long overBurst = next - now - route.capacity * route.intervalNanos;
+                if (overBurst > 0) {
+                    return overBurst;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        private boolean isFull(long now) {
+            return fullAt.get() - now <= 0;
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.HCLBank.banking.security;
+
+import com.HCLBank.banking.entity.RevokedToken;
+import com.HCLBank.banking.entity.User;
+import com.HCLBank.banking.exception.InvalidOperationException;
+import com.HCLBank.banking.exception.ResourceNotFoundException;
+import com.HCLBank.banking.repository.RevokedTokenRepository;
+import com.HCLBank.banking.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Revoked bearer tokens. Logout revokes one token by its jti; killing a user's sessions revokes
+ * every token issued to them up to now. Revocations are stored in revoked_token and mirrored in
+ * memory as an exact map behind a Bloom filter, so the JWT filter pays a few hashes for the
+ * usual token that was never revoked. The mirror is rebuilt from the table periodically, which
+ * drops expired rows and picks up revocations made by other instances.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final String TOKEN_PREFIX = "jti:";
+    private static final String SUBJECT_PREFIX = "sub:";
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final UserRepository userRepository;
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final long refreshIntervalMs;
+
+    // Swapped whole on refresh; revocations made here are added to the current one after commit
+    private volatile Revocations revocations;
+    private ScheduledExecutorService refresher;
+
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder probableHits = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository,
+                                  UserRepository userRepository,
+                                  @Value("${banking.security.revocation.expected-entries:100000}") int expectedEntries,
+                                  @Value("${banking.security.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                                  @Value("${banking.security.revocation.refresh-interval-ms:60000}") long refreshIntervalMs) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.userRepository = userRepository;
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.refreshIntervalMs = refreshIntervalMs;
+        this.revocations = new Revocations(new BloomFilter(expectedEntries, falsePositiveRate), new ConcurrentHashMap<>());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        refresh();
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "token-revocation-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        refresher.scheduleWithFixedDelay(this::refreshQuietly, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    // Checked on every authenticated request, with claims that already passed signature verification
+    public boolean isRevoked(Claims claims) {
+        checks.increment();
+        Revocations current = revocations;
+        boolean revoked = false;
+        if (claims.getId() != null) {
+            String key = TOKEN_PREFIX + claims.getId();
+            if (current.filter.mightContain(key)) {
+                probableHits.increment();
+                revoked = current.exact.containsKey(key);
+            }
+        }
+        String subjectKey = SUBJECT_PREFIX + claims.getSubject();
+        if (!revoked && current.filter.mightContain(subjectKey)) {
+            probableHits.increment();
+            LocalDateTime issuedBefore = current.exact.get(subjectKey);
+            // Tokens without iat cannot be placed relative to the cutoff, so they are revoked too
+            revoked = issuedBefore != null
+                    && (claims.getIssuedAt() == null || !toLocal(claims.getIssuedAt()).isAfter(issuedBefore));
+        }
+        if (revoked) {
+            rejected.increment();
+        }
+        return revoked;
+    }
+
+    @Transactional
+    public void revokeToken(Claims claims) {
+        if (claims.getId() == null) {
+            throw new InvalidOperationException("Token cannot be revoked");
+        }
+        LocalDateTime now = LocalDateTime.now();
+        save(new RevokedToken(TOKEN_PREFIX + claims.getId(), null, toLocal(claims.getExpiration()), now));
+    }
+
+    /**
+     * Revokes every token issued to the user so far; logging in again issues a working token.
+     * iat has whole-second precision, so a token issued later in the same second is revoked too.
+     */
+    @Transactional
+    public LocalDateTime revokeSessions(Long userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found"));
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime issuedBefore = now.truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime expiresAt = issuedBefore.plus(JwtUtil.TOKEN_VALIDITY_MS, ChronoUnit.MILLIS);
+        save(new RevokedToken(SUBJECT_PREFIX + user.getEmail(), issuedBefore, expiresAt, now));
+        return issuedBefore;
+    }
+
+    public Map<String, Object> stats() {
+        Revocations current = revocations;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("checks", checks.sum());
+        stats.put("probableHits", probableHits.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("entries", current.exact.size());
+        stats.put("filterBits", current.filter.bitCount());
+        stats.put("filterHashes", current.filter.hashCount());
+        return stats;
+    }
+
+    private void save(RevokedToken revocation) {
+        revokedTokenRepository.save(revocation);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                synchronized (TokenRevocationService.this) {
+                    add(revocations, revocation);
+                }
+            }
+        });
+    }
+
+    /**
+     * Rebuilds the filter and map from the table after purging expired rows. Holds the lock while
+     * reading, so a revocation committed during the read is either loaded or added afterwards.
+     */
+    public synchronized void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        revokedTokenRepository.deleteExpired(now);
+        List<RevokedToken> rows = revokedTokenRepository.findByExpiresAtAfter(now);
+        // Sized for growth, so revocations added until the next refresh keep the false-positive rate
+        Revocations rebuilt = new Revocations(
+                new BloomFilter(Math.max(expectedEntries, rows.size() * 2), falsePositiveRate),
+                new ConcurrentHashMap<>());
+        for (RevokedToken row : rows) {
+            add(rebuilt, row);
+        }
+        revocations = rebuilt;
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (RuntimeException ex) {
+            // Keep the current mirror and try again at the next interval
+        }
+    }
+
+    private static void add(Revocations target, RevokedToken row) {
+        // Token rows only need membership; the expiry stands in as their value
+        target.exact.put(row.getRevocationKey(), row.getIssuedBefore() != null ? row.getIssuedBefore() : row.getExpiresAt());
+        target.filter.add(row.getRevocationKey());
+    }
+
+    private static LocalDateTime toLocal(Date date) {
+        return LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+    }
+
+    private record Revocations(BloomFilter filter, Map<String, LocalDateTime> exact) {
+    }
+}
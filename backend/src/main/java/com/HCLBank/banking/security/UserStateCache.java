@@ -0,0 +1,83 @@
+package com.HCLBank.banking.security;
+
+import com.HCLBank.banking.entity.Role;
+import com.HCLBank.banking.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Short-lived copy of the user state a bearer token still has to agree with: whether the user
+ * exists and which role they hold. The JWT filter checks the role claim against it, so a user
+ * that is removed or changes role stops authenticating within one TTL, while every other
+ * request costs a map lookup instead of a user query. Bounded LRU, keyed by email.
+ */
+@Component
+public class UserStateCache {
+
+    private final UserRepository userRepository;
+    private final long ttlNanos;
+    private final Map<String, UserState> states;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public UserStateCache(UserRepository userRepository,
+                          @Value("${banking.security.user-state.max-entries:10000}") int maxEntries,
+                          @Value("${banking.security.user-state.ttl-ms:30000}") long ttlMs) {
+        this.userRepository = userRepository;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.states = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, UserState> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    // True when the user still exists and holds the authority, e.g. ROLE_CUSTOMER, named in their token
+    public boolean hasAuthority(String email, String authority) {
+        long now = System.nanoTime();
+        UserState cached = states.get(email);
+        if (cached != null && now - cached.expiresAt < 0) {
+            hits.increment();
+            return cached.role != null && authority.equals("ROLE_" + cached.role.name());
+        }
+        misses.increment();
+        Role role = userRepository.findRoleByEmail(email).orElse(null);
+        states.put(email, new UserState(role, now + ttlNanos));
+        return role != null && authority.equals("ROLE_" + role.name());
+    }
+
+    // Drops the user now and again once the surrounding transaction commits
+    public void invalidate(String email) {
+        states.remove(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    states.remove(email);
+                }
+            });
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("entries", states.size());
+        return stats;
+    }
+
+    // A null role records that no user has the email
+    private record UserState(Role role, long expiresAt) {
+    }
+}
@@ -6,11 +6,13 @@ import com.HCLBank.banking.dto.RegisterRequestDTO;
 import com.HCLBank.banking.exception.InvalidOperationException;
 import com.HCLBank.banking.repository.UserRepository;
 import com.HCLBank.banking.security.JwtUtil;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import com.HCLBank.banking.security.PasswordHasher;
+import com.HCLBank.banking.security.TokenRevocationService;
+import com.HCLBank.banking.security.UserStateCache;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import com.HCLBank.banking.entity.Customer;
@@ -20,7 +22,7 @@ import com.HCLBank.banking.entity.User;
 import com.HCLBank.banking.repository.CustomerRepository;
 import com.HCLBank.banking.repository.AccountRepository;
 import java.math.BigDecimal;
-import org.springframework.transaction.annotation.Transactional;
+import java.util.Collections;
 
 @Service
 public class AuthService {
@@ -28,29 +30,43 @@ public class AuthService {
     private final UserRepository userRepository;
     private final CustomerRepository customerRepository;
     private final AccountRepository accountRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final JwtUtil jwtUtil;
-    private final AuthenticationManager authenticationManager;
-    private final UserDetailsService userDetailsService;
+    private final PayeeIndex payeeIndex;
+    private final UpiResolutionCache upiResolutionCache;
+    private final UserStateCache userStateCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final TransactionRetryExecutor retryExecutor;
 
     public AuthService(UserRepository userRepository,
                        CustomerRepository customerRepository,
                        AccountRepository accountRepository,
-                       PasswordEncoder passwordEncoder,
+                       PasswordHasher passwordHasher,
                        JwtUtil jwtUtil,
-                       AuthenticationManager authenticationManager,
-                       UserDetailsService userDetailsService) {
+                       PayeeIndex payeeIndex,
+                       UpiResolutionCache upiResolutionCache,
+                       UserStateCache userStateCache,
+                       TokenRevocationService tokenRevocationService,
+                       TransactionRetryExecutor retryExecutor) {
         this.userRepository = userRepository;
         this.customerRepository = customerRepository;
         this.accountRepository = accountRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHasher = passwordHasher;
         this.jwtUtil = jwtUtil;
-        this.authenticationManager = authenticationManager;
-        this.userDetailsService = userDetailsService;
+        this.payeeIndex = payeeIndex;
+        this.upiResolutionCache = upiResolutionCache;
+        this.userStateCache = userStateCache;
+        this.tokenRevocationService = tokenRevocationService;
+        this.retryExecutor = retryExecutor;
     }
 
-    @Transactional
     public AuthResponseDTO register(RegisterRequestDTO request) {
+        // Hashed before the transaction opens, so a queue for the hasher never holds a database connection
+        String passwordHash = passwordHasher.encode(request.getPassword());
+        return retryExecutor.execute(() -> createUser(request, passwordHash));
+    }
+
+    private AuthResponseDTO createUser(RegisterRequestDTO request, String passwordHash) {
         if (userRepository.findByEmail(request.getEmail()).isPresent()) {
             throw new InvalidOperationException("Email already exists");
         }
@@ -67,7 +83,7 @@ public class AuthService {
         User user = new User();
         user.setUserName(request.getUserName());
         user.setEmail(request.getEmail());
-        user.setUserPwd(passwordEncoder.encode(request.getPassword()));
+        user.setUserPwd(passwordHash);
         
         Role userRole = Role.CUSTOMER;
         if (request.getRole() != null && request.getRole().equalsIgnoreCase("ADMIN")) {
@@ -88,6 +104,10 @@ public class AuthService {
         account.setBalance(BigDecimal.valueOf(1000.0)); // Welcome bonus
         account.setCustomer(customer);
         account = accountRepository.save(account);
+        payeeIndex.refresh(user.getUserId());
+        // The id may be cached as unknown from lookups made before it was registered
+        upiResolutionCache.invalidate(user.getUpiId());
+        userStateCache.invalidate(user.getEmail());
 
         return AuthResponseDTO.builder()
                 .message("User registered successfully")
@@ -96,14 +116,23 @@ public class AuthService {
     }
 
     public AuthResponseDTO login(LoginRequestDTO request) {
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-        );
-
-        User user = userRepository.findByEmail(request.getEmail())
-                .orElseThrow(() -> new InvalidOperationException("User not found"));
+        // One user read serves the password check, the token and the response
+        User user = userRepository.findByEmail(request.getEmail()).orElse(null);
+        // Unknown emails still pay for one hash, so response time does not reveal which emails exist
+        String storedHash = user != null ? user.getUserPwd() : passwordHasher.unknownUserHash();
+        boolean matches = request.getPassword() != null && passwordHasher.matches(request.getPassword(), storedHash);
+        if (user == null || !matches) {
+            throw new BadCredentialsException("Bad credentials");
+        }
+        if (passwordHasher.needsRehash(user.getUserPwd())) {
+            userRepository.updatePassword(user.getUserId(), passwordHasher.encode(request.getPassword()));
+        }
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(user.getEmail());
+        UserDetails userDetails = new org.springframework.security.core.userdetails.User(
+                user.getEmail(),
+                user.getUserPwd(),
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name()))
+        );
         String token = jwtUtil.generateToken(userDetails);
 
         return AuthResponseDTO.builder()
@@ -115,4 +144,17 @@ public class AuthService {
                 .message("Login successful")
                 .build();
     }
+
+    public AuthResponseDTO logout(String authorizationHeader) {
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            throw new InvalidOperationException("No token to log out");
+        }
+        Claims claims = jwtUtil.verify(authorizationHeader.substring(7));
+        tokenRevocationService.revokeToken(claims);
+
+        return AuthResponseDTO.builder()
+                .username(claims.getSubject())
+                .message("Logout successful")
+                .build();
+    }
 }
@@ -0,0 +1,72 @@
+package com.HCLBank.banking.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hooks into the Hikari pool before it starts and keeps what admission control needs: a
+ * decaying average of how long callers waited for a connection, and how many are waiting now.
+ */
+@Component
+public class ConnectionPoolMonitor implements BeanPostProcessor, MetricsTrackerFactory {
+
+    private final DecayingAverage waitMillis = new DecayingAverage(0.1, TimeUnit.SECONDS.toNanos(2));
+    private final LongAdder timeouts = new LongAdder();
+    private volatile PoolStats poolStats;
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        // Must be set before the first connection is taken, when Hikari seals its configuration
+        if (bean instanceof HikariDataSource dataSource && dataSource.getMetricsTrackerFactory() == null) {
+            dataSource.setMetricsTrackerFactory(this);
+        }
+        return bean;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        this.poolStats = poolStats;
+        return new IMetricsTracker() {
+            @Override
+            public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+                waitMillis.record(elapsedAcquiredNanos / 1_000_000.0, System.nanoTime());
+            }
+
+            @Override
+            public void recordConnectionTimeout() {
+                timeouts.increment();
+            }
+        };
+    }
+
+    public double averageWaitMillis() {
+        return waitMillis.get(System.nanoTime());
+    }
+
+    // Threads blocked in getConnection right now, or 0 before the pool has started
+    public int pendingThreads() {
+        PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getPendingThreads();
+    }
+
+    public int activeConnections() {
+        PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getActiveConnections();
+    }
+
+    public int maxConnections() {
+        PoolStats stats = poolStats;
+        return stats == null ? 0 : stats.getMaxConnections();
+    }
+
+    public long timeouts() {
+        return timeouts.sum();
+    }
+}
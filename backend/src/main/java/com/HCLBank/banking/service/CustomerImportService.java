@@ -0,0 +1,481 @@
+package com.HCLBank.banking.service;
+
+import com.HCLBank.banking.dto.CustomerImportStatusDTO;
+import com.HCLBank.banking.exception.InvalidOperationException;
+import com.HCLBank.banking.exception.ResourceNotFoundException;
+import com.HCLBank.banking.repository.CustomerImportJdbcRepository;
+import com.HCLBank.banking.repository.CustomerImportJdbcRepository.ImportedCustomer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk customer onboarding from CSV. The upload is spooled to a temporary file and imported in
+ * the background, one chunk at a time: rows are validated, checked for duplicates in the file
+ * and, with one IN query per column, in the database, their passwords are hashed across all
+ * cores, and the customer, user and account rows go in as JDBC batches in one transaction per
+ * chunk. Rows that fail are written to a per-job error file instead of stopping the import.
+ *
+ * Header columns: userName, email, password (required) and accountType (SAVINGS or CURRENT),
+ * openingBalance (at most two decimals), kycCompleted (optional). Quoted fields may contain
+ * commas but not line breaks.
+ */
+@Service
+public class CustomerImportService {
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("userName", "email", "password");
+    private static final Set<String> ACCOUNT_TYPES = Set.of("SAVINGS", "CURRENT");
+    // user and account text columns are VARCHAR(255); the UPI ID adds "@hcl" to the user name
+    private static final int MAX_TEXT_LENGTH = 255;
+    private static final int MAX_USER_NAME_LENGTH = MAX_TEXT_LENGTH - "@hcl".length();
+    // balance is DECIMAL(38,2)
+    private static final int BALANCE_SCALE = 2;
+    private static final int MAX_BALANCE_INTEGER_DIGITS = 36;
+
+    private final CustomerImportJdbcRepository importRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final TransactionRetryExecutor retryExecutor;
+    private final PayeeIndex payeeIndex;
+    private final UpiResolutionCache upiResolutionCache;
+    private final int batchSize;
+
+    // Imports run one after another; hashing of each chunk is spread over the hashers
+    private final ExecutorService jobs;
+    private final ExecutorService hashers;
+    private final Map<String, ImportJob> recentJobs;
+
+    public CustomerImportService(CustomerImportJdbcRepository importRepository,
+                                 PasswordEncoder passwordEncoder,
+                                 TransactionRetryExecutor retryExecutor,
+                                 PayeeIndex payeeIndex,
+                                 UpiResolutionCache upiResolutionCache,
+                                 @Value("${banking.import.batch-size:1000}") int batchSize,
+                                 @Value("${banking.import.hash-threads:0}") int hashThreads,
+                                 @Value("${banking.import.max-jobs:20}") int maxJobs) {
+        this.importRepository = importRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.retryExecutor = retryExecutor;
+        this.payeeIndex = payeeIndex;
+        this.upiResolutionCache = upiResolutionCache;
+        this.batchSize = batchSize;
+        this.jobs = Executors.newSingleThreadExecutor(runnable -> daemon(runnable, "customer-import"));
+        AtomicInteger counter = new AtomicInteger();
+        this.hashers = Executors.newFixedThreadPool(
+                hashThreads > 0 ? hashThreads : Runtime.getRuntime().availableProcessors(),
+                runnable -> daemon(runnable, "customer-import-hash-" + counter.incrementAndGet()));
+        this.recentJobs = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ImportJob> eldest) {
+                boolean evict = size() > maxJobs && eldest.getValue().finishedAt != null;
+                if (evict) {
+                    deleteQuietly(eldest.getValue().errorFile);
+                }
+                return evict;
+            }
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        jobs.shutdownNow();
+        hashers.shutdownNow();
+    }
+
+    public CustomerImportStatusDTO start(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new InvalidOperationException("CSV file is required");
+        }
+        ImportJob job;
+        try {
+            Path upload = Files.createTempFile("customer-import-", ".csv");
+            file.transferTo(upload);
+            job = new ImportJob(UUID.randomUUID().toString(), upload, Files.createTempFile("customer-import-errors-", ".csv"));
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        recentJobs.put(job.id, job);
+        jobs.submit(() -> run(job));
+        return job.toStatus();
+    }
+
+    public CustomerImportStatusDTO status(String jobId) {
+        return job(jobId).toStatus();
+    }
+
+    // line,email,error for every rejected row; complete once the job has finished
+    public Path errorFile(String jobId) {
+        return job(jobId).errorFile;
+    }
+
+    private ImportJob job(String jobId) {
+        ImportJob job = recentJobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Import job not found: " + jobId);
+        }
+        return job;
+    }
+
+    private void run(ImportJob job) {
+        job.status = "RUNNING";
+        try (BufferedReader reader = Files.newBufferedReader(job.upload, StandardCharsets.UTF_8);
+             BufferedWriter errors = Files.newBufferedWriter(job.errorFile, StandardCharsets.UTF_8)) {
+            errors.write("line,email,error\n");
+            Map<String, Integer> columns = parseHeader(reader.readLine());
+            Seen seen = new Seen();
+            List<CsvRow> chunk = new ArrayList<>(batchSize);
+            long lineNumber = 1;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                job.rowsRead.incrementAndGet();
+                chunk.add(new CsvRow(lineNumber, parseLine(line), columns));
+                if (chunk.size() >= batchSize) {
+                    importChunk(job, chunk, seen, errors);
+                    chunk.clear();
+                }
+            }
+            importChunk(job, chunk, seen, errors);
+            job.finish("COMPLETED", null);
+        } catch (Exception ex) {
+            job.finish("FAILED", ex.getMessage());
+        } finally {
+            deleteQuietly(job.upload);
+            if (job.imported.get() > 0) {
+                // New payees for the typeahead, and UPI ids that were cached as unknown
+                payeeIndex.load();
+                upiResolutionCache.invalidateAll();
+            }
+        }
+    }
+
+    private void importChunk(ImportJob job, List<CsvRow> chunk, Seen seen, BufferedWriter errors)
+            throws IOException, InterruptedException, ExecutionException {
+        List<CsvRow> valid = new ArrayList<>(chunk.size());
+        for (CsvRow row : chunk) {
+            String error = row.validate();
+            if (error == null) {
+                error = seen.claim(row);
+            }
+            if (error == null) {
+                valid.add(row);
+            } else {
+                reject(job, errors, row, error);
+            }
+        }
+        valid = withoutExistingUsers(job, valid, errors);
+        if (valid.isEmpty()) {
+            return;
+        }
+
+        List<Callable<String>> hashes = new ArrayList<>(valid.size());
+        for (CsvRow row : valid) {
+            hashes.add(() -> passwordEncoder.encode(row.password));
+        }
+        List<Future<String>> hashed = hashers.invokeAll(hashes);
+        List<ImportedCustomer> customers = new ArrayList<>(valid.size());
+        for (int i = 0; i < valid.size(); i++) {
+            customers.add(valid.get(i).toCustomer(hashed.get(i).get()));
+        }
+
+        try {
+            retryExecutor.executeWithoutResult(() -> importRepository.insert(customers));
+            job.imported.addAndGet(customers.size());
+        } catch (DataIntegrityViolationException ex) {
+            // Someone registered one of these users since the duplicate check, or a row breaks another
+            // constraint; find which row by inserting one at a time
+            for (int i = 0; i < customers.size(); i++) {
+                ImportedCustomer customer = customers.get(i);
+                try {
+                    retryExecutor.executeWithoutResult(() -> importRepository.insert(List.of(customer)));
+                    job.imported.incrementAndGet();
+                } catch (DuplicateKeyException rowEx) {
+                    reject(job, errors, valid.get(i), "User name, email or UPI ID already exists");
+                } catch (DataIntegrityViolationException rowEx) {
+                    reject(job, errors, valid.get(i), "Rejected by the database: " + rowEx.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    private List<CsvRow> withoutExistingUsers(ImportJob job, List<CsvRow> rows, BufferedWriter errors) throws IOException {
+        if (rows.isEmpty()) {
+            return rows;
+        }
+        Set<String> emails = new HashSet<>();
+        Set<String> userNames = new HashSet<>();
+        Set<String> upiIds = new HashSet<>();
+        for (CsvRow row : rows) {
+            emails.add(row.email);
+            userNames.add(row.userName);
+            upiIds.add(row.upiId);
+        }
+        Set<String> existingEmails = lowerCase(importRepository.existingEmails(emails));
+        Set<String> existingUserNames = lowerCase(importRepository.existingUserNames(userNames));
+        Set<String> existingUpiIds = lowerCase(importRepository.existingUpiIds(upiIds));
+        List<CsvRow> remaining = new ArrayList<>(rows.size());
+        for (CsvRow row : rows) {
+            if (existingEmails.contains(row.email.toLowerCase(Locale.ROOT))) {
+                reject(job, errors, row, "Email already exists");
+            } else if (existingUserNames.contains(row.userName.toLowerCase(Locale.ROOT))) {
+                reject(job, errors, row, "Username already exists");
+            } else if (existingUpiIds.contains(row.upiId)) {
+                reject(job, errors, row, "UPI ID already exists");
+            } else {
+                remaining.add(row);
+            }
+        }
+        return remaining;
+    }
+
+    private void reject(ImportJob job, BufferedWriter errors, CsvRow row, String error) throws IOException {
+        job.failed.incrementAndGet();
+        errors.write(row.lineNumber + "," + csvField(row.email == null ? "" : row.email) + "," + csvField(error) + "\n");
+    }
+
+    private Map<String, Integer> parseHeader(String header) {
+        if (header == null) {
+            throw new InvalidOperationException("CSV file is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = parseLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim().replace("\uFEFF", ""), i);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(required)) {
+                throw new InvalidOperationException("CSV header is missing column " + required);
+            }
+        }
+        return columns;
+    }
+
+    // One CSV record on one line; "" inside a quoted field is a literal quote
+    private static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static Set<String> lowerCase(Set<String> values) {
+        Set<String> lower = new HashSet<>(values.size());
+        for (String value : values) {
+            lower.add(value.toLowerCase(Locale.ROOT));
+        }
+        return lower;
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            // A leftover temporary file is harmless
+        }
+    }
+
+    private static final class CsvRow {
+        private final long lineNumber;
+        private final String userName;
+        private final String email;
+        private final String password;
+        private final String accountType;
+        private final String openingBalance;
+        private final String kycCompleted;
+        private final String upiId;
+
+        private CsvRow(long lineNumber, List<String> fields, Map<String, Integer> columns) {
+            this.lineNumber = lineNumber;
+            this.userName = field(fields, columns, "userName");
+            this.email = field(fields, columns, "email");
+            this.password = field(fields, columns, "password");
+            this.accountType = field(fields, columns, "accountType");
+            this.openingBalance = field(fields, columns, "openingBalance");
+            this.kycCompleted = field(fields, columns, "kycCompleted");
+            // Same UPI ID as self-registration gives
+            this.upiId = userName == null ? null : userName.replaceAll("\\s+", "").toLowerCase() + "@hcl";
+        }
+
+        private static String field(List<String> fields, Map<String, Integer> columns, String column) {
+            Integer index = columns.get(column);
+            if (index == null || index >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(index).trim();
+            return value.isEmpty() ? null : value;
+        }
+
+        // Null when the row can be imported, otherwise the reason it cannot
+        private String validate() {
+            if (userName == null) {
+                return "userName is required";
+            }
+            if (userName.length() > MAX_USER_NAME_LENGTH) {
+                return "userName must be at most " + MAX_USER_NAME_LENGTH + " characters";
+            }
+            if (email == null || email.indexOf('@') < 1) {
+                return "A valid email is required";
+            }
+            if (email.length() > MAX_TEXT_LENGTH) {
+                return "email must be at most " + MAX_TEXT_LENGTH + " characters";
+            }
+            if (password == null) {
+                return "password is required";
+            }
+            if (accountType != null && !ACCOUNT_TYPES.contains(accountType.toUpperCase(Locale.ROOT))) {
+                return "accountType must be one of " + String.join(", ", ACCOUNT_TYPES.stream().sorted().toList());
+            }
+            if (openingBalance != null) {
+                BigDecimal balance;
+                try {
+                    balance = new BigDecimal(openingBalance);
+                } catch (NumberFormatException ex) {
+                    return "openingBalance is not a number";
+                }
+                if (balance.signum() < 0) {
+                    return "openingBalance cannot be negative";
+                }
+                // Anything finer would be rounded by the column, so the stored money would differ from the file
+                if (balance.stripTrailingZeros().scale() > BALANCE_SCALE) {
+                    return "openingBalance must have at most " + BALANCE_SCALE + " decimal places";
+                }
+                if (balance.precision() - balance.scale() > MAX_BALANCE_INTEGER_DIGITS) {
+                    return "openingBalance is too large";
+                }
+            }
+            return null;
+        }
+
+        private ImportedCustomer toCustomer(String passwordHash) {
+            return new ImportedCustomer(userName, email, passwordHash, upiId,
+                    Boolean.parseBoolean(kycCompleted),
+                    accountType == null ? "SAVINGS" : accountType.toUpperCase(Locale.ROOT),
+                    openingBalance == null ? BigDecimal.ZERO : new BigDecimal(openingBalance));
+        }
+    }
+
+    // Keys already taken by earlier rows of the same file, compared the way MySQL's collation does
+    private static final class Seen {
+        private final Set<String> emails = new HashSet<>();
+        private final Set<String> userNames = new HashSet<>();
+        private final Set<String> upiIds = new HashSet<>();
+
+        private String claim(CsvRow row) {
+            if (!emails.add(row.email.toLowerCase(Locale.ROOT))) {
+                return "Duplicate email in file";
+            }
+            if (!userNames.add(row.userName.toLowerCase(Locale.ROOT))) {
+                return "Duplicate userName in file";
+            }
+            if (!upiIds.add(row.upiId)) {
+                return "Duplicate UPI ID in file";
+            }
+            return null;
+        }
+    }
+
+    private static final class ImportJob {
+        private final String id;
+        private final Path upload;
+        private final Path errorFile;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong rowsRead = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile String status = "QUEUED";
+        private volatile String message;
+        private volatile LocalDateTime finishedAt;
+
+        private ImportJob(String id, Path upload, Path errorFile) {
+            this.id = id;
+            this.upload = upload;
+            this.errorFile = errorFile;
+        }
+
+        private void finish(String finalStatus, String finalMessage) {
+            message = finalMessage;
+            finishedAt = LocalDateTime.now();
+            status = finalStatus;
+        }
+
+        private CustomerImportStatusDTO toStatus() {
+            return CustomerImportStatusDTO.builder()
+                    .jobId(id)
+                    .status(status)
+                    .rowsRead(rowsRead.get())
+                    .imported(imported.get())
+                    .failed(failed.get())
+                    .startedAt(startedAt)
+                    .finishedAt(finishedAt)
+                    .message(message)
+                    .build();
+        }
+    }
+}
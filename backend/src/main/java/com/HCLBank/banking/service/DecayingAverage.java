@@ -0,0 +1,34 @@
+package com.HCLBank.banking.service;
+
+/**
+ * Exponentially weighted average of samples that also decays toward zero with time, so a
+ * signal stops reading high once the samples that raised it stop arriving.
+ */
+public final class DecayingAverage {
+
+    private final double sampleWeight;
+    private final double halfLifeNanos;
+
+    private double value;
+    private long updatedAt = System.nanoTime();
+
+    public DecayingAverage(double sampleWeight, long halfLifeNanos) {
+        this.sampleWeight = sampleWeight;
+        this.halfLifeNanos = halfLifeNanos;
+    }
+
+    public synchronized void record(double sample, long now) {
+        double current = decayed(now);
+        value = current + sampleWeight * (sample - current);
+        updatedAt = now;
+    }
+
+    public synchronized double get(long now) {
+        return decayed(now);
+    }
+
+    private double decayed(long now) {
+        long idle = now - updatedAt;
+        return idle <= 0 ? value : value * Math.pow(0.5, idle / halfLifeNanos);
+    }
+}
@@ -0,0 +1,295 @@
+package com.HCLBank.banking.service;
+
+import com.HCLBank.banking.entity.Account;
+import com.HCLBank.banking.entity.Transaction;
+import com.HCLBank.banking.repository.AccountRepository;
+import com.HCLBank.banking.repository.TransactionHistoryRow;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.hibernate.Hibernate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the newest history entries of recently viewed accounts in memory, so repeated
+ * dashboard loads of an unfiltered history page do not query the ledger. Committed postings
+ * are added to the cached accounts they touch instead of dropping them, and accounts are
+ * evicted least recently used first once the estimated size passes the memory budget.
+ * A page is only served from memory when the cached window can answer it completely.
+ */
+@Component
+public class HistoryCache {
+
+    // Rough heap cost of one cached entry besides its strings: the object, boxed id, date and decimals
+    private static final int ENTRY_OVERHEAD_BYTES = 200;
+    private static final int ACCOUNT_OVERHEAD_BYTES = 150;
+    private static final int STAMP_STRIPES = 1024;
+
+    private static final Comparator<Entry> NEWEST_FIRST = Comparator
+            .comparing(Entry::getTransactionDate).thenComparing(Entry::getTransactionId).reversed();
+
+    private final AccountRepository accountRepository;
+    private final int entriesPerAccount;
+    private final long maxBytes;
+
+    // Access ordered, so iteration starts at the least recently used account; guarded by itself
+    private final LinkedHashMap<Long, AccountHistory> accounts = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+    // Bumped by every posting, so a load that raced with one is not installed over it
+    private final AtomicLongArray stamps = new AtomicLongArray(STAMP_STRIPES);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder appends = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public HistoryCache(AccountRepository accountRepository,
+                        @Value("${banking.history.cache.entries-per-account:50}") int entriesPerAccount,
+                        @Value("${banking.history.cache.max-bytes:67108864}") long maxBytes) {
+        this.accountRepository = accountRepository;
+        this.entriesPerAccount = entriesPerAccount;
+        this.maxBytes = maxBytes;
+    }
+
+    public boolean isEnabled() {
+        return maxBytes > 0 && entriesPerAccount > 0;
+    }
+
+    public int getEntriesPerAccount() {
+        return entriesPerAccount;
+    }
+
+    /**
+     * Up to count entries of the account strictly older than the (beforeDate, beforeId) position,
+     * newest first, or null when the account is not cached or its window cannot answer in full.
+     */
+    public List<TransactionHistoryRow> find(Long accountId, LocalDateTime beforeDate, Long beforeId, int count) {
+        synchronized (accounts) {
+            AccountHistory history = accounts.get(accountId);
+            if (history != null) {
+                int start = 0;
+                while (start < history.entries.size() && !isBefore(history.entries.get(start), beforeDate, beforeId)) {
+                    start++;
+                }
+                int available = history.entries.size() - start;
+                if (available >= count || history.complete) {
+                    hits.increment();
+                    return new ArrayList<>(history.entries.subList(start, start + Math.min(available, count)));
+                }
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    // Moves on every committed posting of the account; taken before a load and handed back to install
+    public long stamp(Long accountId) {
+        return stamps.get(stripe(accountId));
+    }
+
+    /**
+     * Caches the account's newest rows as read from the ledger, newest first. Pass one row more
+     * than the window holds, so the cache knows whether it has the account's whole history.
+     */
+    public void install(Long accountId, long stamp, List<? extends TransactionHistoryRow> rows) {
+        if (!isEnabled()) {
+            return;
+        }
+        AccountHistory history = new AccountHistory(rows.size() <= entriesPerAccount);
+        for (TransactionHistoryRow row : rows.subList(0, Math.min(rows.size(), entriesPerAccount))) {
+            history.entries.add(Entry.of(row));
+        }
+        synchronized (accounts) {
+            if (stamps.get(stripe(accountId)) != stamp) {
+                return;
+            }
+            history.bytes = ACCOUNT_OVERHEAD_BYTES + history.entries.stream().mapToLong(Entry::sizeInBytes).sum();
+            AccountHistory previous = accounts.put(accountId, history);
+            bytes += history.bytes - (previous == null ? 0 : previous.bytes);
+            loads.increment();
+            evictOverBudget();
+        }
+    }
+
+    /**
+     * Adds posted ledger rows to the cached accounts they touch once the surrounding
+     * transaction commits, or right away when there is none. Rows must have their ids.
+     */
+    public void recordPosted(Collection<Transaction> rows) {
+        // Still runs with the cache disabled, since stamps also key coalesced history reads
+        if (rows.isEmpty()) {
+            return;
+        }
+        List<Transaction> posted = List.copyOf(rows);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(posted);
+                }
+            });
+        } else {
+            apply(posted);
+        }
+    }
+
+    // Ledger rows were rewritten in place (migrations, backfills)
+    public void clear() {
+        synchronized (accounts) {
+            for (int i = 0; i < STAMP_STRIPES; i++) {
+                stamps.incrementAndGet(i);
+            }
+            accounts.clear();
+            bytes = 0;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount));
+        stats.put("loads", loads.sum());
+        stats.put("appends", appends.sum());
+        stats.put("evictions", evictions.sum());
+        synchronized (accounts) {
+            stats.put("accounts", accounts.size());
+            stats.put("estimatedBytes", bytes);
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("entriesPerAccount", entriesPerAccount);
+        return stats;
+    }
+
+    private void apply(List<Transaction> posted) {
+        for (Transaction row : posted) {
+            Account source = row.getSourceAccount();
+            Account target = row.getTargetAccount();
+            if (source != null) {
+                append(source.getAccountId(), row, "DEBIT", target, row.getSourceBalanceAfter());
+            }
+            if (target != null) {
+                append(target.getAccountId(), row, "CREDIT", source, row.getTargetBalanceAfter());
+            }
+        }
+    }
+
+    private void append(Long accountId, Transaction row, String direction, Account counterparty, BigDecimal balanceAfter) {
+        stamps.incrementAndGet(stripe(accountId));
+        synchronized (accounts) {
+            if (!accounts.containsKey(accountId)) {
+                return;
+            }
+        }
+        // Looked up outside the lock; only needed for accounts somebody is looking at
+        Entry entry = new Entry(row.getTransactionId(), row.getTransactionDate(), row.getTransactionAmount(),
+                direction, row.getRemarks(), counterpartyName(counterparty), balanceAfter);
+        synchronized (accounts) {
+            AccountHistory history = accounts.get(accountId);
+            if (history == null) {
+                return;
+            }
+            List<Entry> entries = history.entries;
+            int position = 0;
+            while (position < entries.size() && NEWEST_FIRST.compare(entries.get(position), entry) < 0) {
+                position++;
+            }
+            boolean duplicate = position < entries.size()
+                    && entries.get(position).getTransactionId().equals(entry.getTransactionId());
+            // Older than the window: the rows between it and the window are not cached
+            boolean outsideWindow = position == entries.size() && !history.complete;
+            if (duplicate || outsideWindow) {
+                return;
+            }
+            entries.add(position, entry);
+            long delta = entry.sizeInBytes();
+            if (entries.size() > entriesPerAccount) {
+                delta -= entries.remove(entries.size() - 1).sizeInBytes();
+                history.complete = false;
+            }
+            history.bytes += delta;
+            bytes += delta;
+            appends.increment();
+            evictOverBudget();
+        }
+    }
+
+    private String counterpartyName(Account counterparty) {
+        if (counterparty == null) {
+            return null;
+        }
+        if (Hibernate.isInitialized(counterparty) && counterparty.getAccountName() != null) {
+            return counterparty.getAccountName();
+        }
+        return accountRepository.findAccountNameById(counterparty.getAccountId()).orElse(null);
+    }
+
+    // Caller holds the accounts lock
+    private void evictOverBudget() {
+        Iterator<AccountHistory> eldest = accounts.values().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().bytes;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private boolean isBefore(Entry entry, LocalDateTime beforeDate, Long beforeId) {
+        int byDate = entry.getTransactionDate().compareTo(beforeDate);
+        return byDate < 0 || (byDate == 0 && entry.getTransactionId() < beforeId);
+    }
+
+    private int stripe(Long accountId) {
+        return Math.floorMod(Long.hashCode(accountId), STAMP_STRIPES);
+    }
+
+    private static final class AccountHistory {
+        private final List<Entry> entries = new ArrayList<>();
+        // True while the entries are all the history the account has
+        private boolean complete;
+        private long bytes;
+
+        private AccountHistory(boolean complete) {
+            this.complete = complete;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class Entry implements TransactionHistoryRow {
+        private final Long transactionId;
+        private final LocalDateTime transactionDate;
+        private final BigDecimal amount;
+        private final String direction;
+        private final String remarks;
+        private final String counterpartyName;
+        private final BigDecimal balanceAfter;
+
+        private static Entry of(TransactionHistoryRow row) {
+            return new Entry(row.getTransactionId(), row.getTransactionDate(), row.getAmount(), row.getDirection(),
+                    row.getRemarks(), row.getCounterpartyName(), row.getBalanceAfter());
+        }
+
+        private long sizeInBytes() {
+            return ENTRY_OVERHEAD_BYTES + 2L * ((remarks == null ? 0 : remarks.length())
+                    + (counterpartyName == null ? 0 : counterpartyName.length()));
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.HCLBank.banking.service;
+
+import com.HCLBank.banking.entity.IdempotencyRecord;
+import com.HCLBank.banking.exception.InvalidOperationException;
+import com.HCLBank.banking.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Makes a money-moving request safe to retry under an Idempotency-Key. The first request runs
+ * and its response is stored against the key claimed before it ran; later requests with the
+ * key get that response back from a bounded in-memory LRU or the idempotency_key table without
+ * touching accounts. Concurrent duplicates on this instance wait for the first one, and a
+ * duplicate on another instance finds the key already claimed and does no work. Keys
+ * are kept for the retention period and then purged in the background, after which the same
+ * key runs as a new request.
+ */
+@Component
+public class IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 100;
+    // Length of the idempotency_key column, which holds operation, principal and client key
+    private static final int MAX_SCOPED_KEY_LENGTH = 255;
+    private static final int PURGE_BATCH_SIZE = 5000;
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionRetryExecutor retryExecutor;
+    private final ObjectMapper objectMapper;
+    private final long waitTimeoutMs;
+    private final long retentionMs;
+    private final long purgeIntervalMs;
+    private ScheduledExecutorService purger;
+
+    private final Map<String, IdempotencyRecord> recent;
+    private final Map<String, CompletableFuture<IdempotencyRecord>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              TransactionRetryExecutor retryExecutor,
+                              ObjectMapper objectMapper,
+                              @Value("${banking.idempotency.cache-size:10000}") int cacheSize,
+                              @Value("${banking.idempotency.wait-timeout-ms:30000}") long waitTimeoutMs,
+                              @Value("${banking.idempotency.retention-ms:86400000}") long retentionMs,
+                              @Value("${banking.idempotency.purge-interval-ms:3600000}") long purgeIntervalMs) {
+        this.repository = repository;
+        this.retryExecutor = retryExecutor;
+        this.objectMapper = objectMapper;
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.retentionMs = retentionMs;
+        this.purgeIntervalMs = purgeIntervalMs;
+        this.recent = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "idempotency-purge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        purger.scheduleWithFixedDelay(this::purgeQuietly, purgeIntervalMs, purgeIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (purger != null) {
+            purger.shutdownNow();
+        }
+    }
+
+    // Deletes keys older than the retention period, a batch at a time; returns how many went
+    public int purgeExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(retentionMs));
+        int purged = 0;
+        int deleted;
+        do {
+            deleted = repository.deleteCreatedBefore(cutoff, PURGE_BATCH_SIZE);
+            purged += deleted;
+        } while (deleted == PURGE_BATCH_SIZE && !Thread.currentThread().isInterrupted());
+        return purged;
+    }
+
+    public <T> T execute(String operation, String key, Object request, Class<T> responseType, Supplier<T> work) {
+        if (key == null || key.isBlank()) {
+            return work.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidOperationException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String scopedKey = operation + ":" + currentPrincipal() + ":" + key;
+        if (scopedKey.length() > MAX_SCOPED_KEY_LENGTH) {
+            throw new InvalidOperationException("Idempotency-Key is too long for this account; use a shorter key");
+        }
+        String requestHash = hash(request);
+
+        IdempotencyRecord completed = recent.get(scopedKey);
+        if (completed != null) {
+            return replay(completed, requestHash, responseType);
+        }
+
+        CompletableFuture<IdempotencyRecord> mine = new CompletableFuture<>();
+        CompletableFuture<IdempotencyRecord> running = inFlight.putIfAbsent(scopedKey, mine);
+        if (running != null) {
+            return replay(await(running), requestHash, responseType);
+        }
+        try {
+            IdempotencyRecord record = runOnce(scopedKey, requestHash, work);
+            recent.put(scopedKey, record);
+            mine.complete(record);
+            return replay(record, requestHash, responseType);
+        } catch (RuntimeException ex) {
+            // Failed requests are not recorded, so the client may retry them with the same key
+            mine.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(scopedKey, mine);
+        }
+    }
+
+    /**
+     * Claims the key in a transaction of its own, runs the work outside any transaction of ours,
+     * then stores the response in a second short transaction. The work is never inside a
+     * retried transaction, so an engine posting, which is journaled and acknowledged as soon
+     * as it returns, cannot be run twice by a retry or outlive a rolled-back key row.
+     */
+    private <T> IdempotencyRecord runOnce(String scopedKey, String requestHash, Supplier<T> work) {
+        IdempotencyRecord stored = repository.findById(scopedKey).orElse(null);
+        if (stored != null) {
+            return completed(stored, requestHash);
+        }
+        LocalDateTime createdAt = LocalDateTime.now();
+        try {
+            retryExecutor.executeWithoutResult(() -> repository.insert(scopedKey, requestHash, null, createdAt));
+        } catch (DataIntegrityViolationException ex) {
+            // Another instance claimed the key first
+            return completed(repository.findById(scopedKey).orElseThrow(() -> ex), requestHash);
+        }
+
+        T response;
+        try {
+            response = work.get();
+        } catch (RuntimeException ex) {
+            // The work failed, so nothing was posted and the client may retry under the same key
+            retryExecutor.executeWithoutResult(() -> repository.deleteClaim(scopedKey));
+            throw ex;
+        }
+        // If this fails the claim stays without a response: replays then report the key as in
+        // progress instead of posting again
+        IdempotencyRecord record = new IdempotencyRecord(scopedKey, requestHash, toJson(response), createdAt);
+        retryExecutor.executeWithoutResult(() -> repository.storeResponse(scopedKey, record.getResponseBody()));
+        return record;
+    }
+
+    // A claimed key without a response is still running elsewhere, or its outcome was never stored
+    private IdempotencyRecord completed(IdempotencyRecord stored, String requestHash) {
+        if (stored.getResponseBody() == null) {
+            if (!stored.getRequestHash().equals(requestHash)) {
+                throw new InvalidOperationException("Idempotency-Key was already used for a different request");
+            }
+            throw new InvalidOperationException("A request with this Idempotency-Key is still in progress");
+        }
+        return stored;
+    }
+
+    private void purgeQuietly() {
+        try {
+            purgeExpired();
+        } catch (RuntimeException ex) {
+            // Retried on the next run; expired keys only cost space until then
+        }
+    }
+
+    private IdempotencyRecord await(CompletableFuture<IdempotencyRecord> running) {
+        try {
+            return running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new InvalidOperationException("A request with this Idempotency-Key is still in progress");
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InvalidOperationException("Interrupted while waiting for a request with this Idempotency-Key");
+        }
+    }
+
+    private <T> T replay(IdempotencyRecord record, String requestHash, Class<T> responseType) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new InvalidOperationException("Idempotency-Key was already used for a different request");
+        }
+        try {
+            return objectMapper.readValue(record.getResponseBody(), responseType);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored response for an Idempotency-Key is unreadable", ex);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Response cannot be stored for an Idempotency-Key", ex);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(toJson(request).getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private String currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? "anonymous" : authentication.getName();
+    }
+}
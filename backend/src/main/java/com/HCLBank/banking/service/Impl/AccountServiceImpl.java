@@ -12,8 +12,13 @@ import com.HCLBank.banking.repository.AccountRepository;
 import com.HCLBank.banking.repository.TransactionRepository;
 import com.HCLBank.banking.repository.UserRepository;
 import com.HCLBank.banking.service.AccountService;
+import com.HCLBank.banking.service.HistoryCache;
+import com.HCLBank.banking.service.PostingStrategy;
+import com.HCLBank.banking.service.SingleFlight;
+import com.HCLBank.banking.service.TransactionRetryExecutor;
+import com.HCLBank.banking.service.engine.BalanceEngine;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -25,13 +30,28 @@ public class AccountServiceImpl implements AccountService {
     private final AccountRepository accountRepository;
     private final UserRepository userRepository;
     private final TransactionRepository transactionRepository;
+    private final PostingStrategy postingStrategy;
+    private final TransactionRetryExecutor retryExecutor;
+    private final BalanceEngine balanceEngine;
+    private final HistoryCache historyCache;
+    private final SingleFlight singleFlight;
 
     public AccountServiceImpl(AccountRepository accountRepository,
                               UserRepository userRepository,
-                              TransactionRepository transactionRepository) {
+                              TransactionRepository transactionRepository,
+                              PostingStrategy postingStrategy,
+                              TransactionRetryExecutor retryExecutor,
+                              HistoryCache historyCache,
+                              SingleFlight singleFlight,
+                              ObjectProvider<BalanceEngine> balanceEngine) {
         this.accountRepository = accountRepository;
         this.userRepository = userRepository;
         this.transactionRepository = transactionRepository;
+        this.postingStrategy = postingStrategy;
+        this.retryExecutor = retryExecutor;
+        this.balanceEngine = balanceEngine.getIfAvailable();
+        this.historyCache = historyCache;
+        this.singleFlight = singleFlight;
     }
 
     @Override
@@ -63,32 +83,33 @@ public class AccountServiceImpl implements AccountService {
     }
 
     @Override
-    @Transactional
     public Account deposit(Long accountId, Double amount) {
         if (amount <= 0) {
             throw new RuntimeException("Deposit amount must be positive");
         }
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
         BigDecimal delta = BigDecimal.valueOf(amount);
-        BigDecimal current = account.getBalance() == null ? BigDecimal.ZERO : account.getBalance();
-        account.setBalance(current.add(delta));
-        accountRepository.save(account);
-
-        Transaction depositTxn = new Transaction();
-        depositTxn.setTransactionType("CREDIT");
-        depositTxn.setTransactionAmount(delta);
-        depositTxn.setTransactionDate(LocalDateTime.now());
-        depositTxn.setSourceAccount(null);
-        depositTxn.setTargetAccount(account);
-        depositTxn.setRemarks("Self Deposit");
-        transactionRepository.save(depositTxn);
-
-        return account;
+        if (balanceEngine != null) {
+            return withBalance(getAccountById(accountId), balanceEngine.credit(accountId, delta));
+        }
+        return retryExecutor.execute(() -> {
+            BigDecimal balance = postingStrategy.credit(accountId, delta);
+            Account account = getAccountById(accountId);
+
+            Transaction depositTxn = new Transaction();
+            depositTxn.setTransactionType("CREDIT");
+            depositTxn.setTransactionAmount(delta);
+            depositTxn.setTransactionDate(LocalDateTime.now());
+            depositTxn.setSourceAccount(null);
+            depositTxn.setTargetAccount(account);
+            depositTxn.setTargetBalanceAfter(balance);
+            depositTxn.setRemarks("Self Deposit");
+            historyCache.recordPosted(List.of(transactionRepository.save(depositTxn)));
+
+            return account;
+        });
     }
 
     @Override
-    @Transactional
     public DepositResponseDTO deposit(DepositRequestDTO request) {
         if (request == null || request.getAccountId() == null) {
             throw new RuntimeException("Account ID is required");
@@ -100,55 +121,63 @@ public class AccountServiceImpl implements AccountService {
         Long accountId = request.getAccountId();
         BigDecimal amount = request.getAmount();
 
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
-        BigDecimal current = account.getBalance() == null ? BigDecimal.ZERO : account.getBalance();
-        BigDecimal newBalance = current.add(amount);
-        account.setBalance(newBalance);
-        accountRepository.save(account);
-
-        Transaction depositTxn = new Transaction();
-        depositTxn.setTransactionType("CREDIT");
-        depositTxn.setTransactionAmount(amount);
-        depositTxn.setTransactionDate(LocalDateTime.now());
-        depositTxn.setSourceAccount(null);
-        depositTxn.setTargetAccount(account);
-        depositTxn.setRemarks("Self Deposit");
-        transactionRepository.save(depositTxn);
+        if (balanceEngine != null) {
+            return new DepositResponseDTO(accountId, balanceEngine.credit(accountId, amount), LocalDateTime.now());
+        }
+
+        BigDecimal newBalance = retryExecutor.execute(() -> {
+            BigDecimal balance = postingStrategy.credit(accountId, amount);
+
+            Transaction depositTxn = new Transaction();
+            depositTxn.setTransactionType("CREDIT");
+            depositTxn.setTransactionAmount(amount);
+            depositTxn.setTransactionDate(LocalDateTime.now());
+            depositTxn.setSourceAccount(null);
+            depositTxn.setTargetAccount(accountRepository.getReferenceById(accountId));
+            depositTxn.setTargetBalanceAfter(balance);
+            depositTxn.setRemarks("Self Deposit");
+            historyCache.recordPosted(List.of(transactionRepository.save(depositTxn)));
+
+            return balance;
+        });
 
         return new DepositResponseDTO(accountId, newBalance, LocalDateTime.now());
     }
 
     @Override
-    @Transactional
     public Account withdraw(Long accountId, Double amount) {
         if (amount <= 0) {
             throw new RuntimeException("Withdrawal amount must be positive");
         }
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
-        BigDecimal current = account.getBalance() == null ? BigDecimal.ZERO : account.getBalance();
         BigDecimal delta = BigDecimal.valueOf(amount);
-        if (current.compareTo(delta) < 0) {
-            throw new RuntimeException("Insufficient balance");
+        if (balanceEngine != null) {
+            return withBalance(getAccountById(accountId), balanceEngine.debit(accountId, delta));
         }
-        account.setBalance(current.subtract(delta));
-        accountRepository.save(account);
-
-        Transaction withdrawTxn = new Transaction();
-        withdrawTxn.setTransactionType("DEBIT");
-        withdrawTxn.setTransactionAmount(delta);
-        withdrawTxn.setTransactionDate(LocalDateTime.now());
-        withdrawTxn.setSourceAccount(account);
-        withdrawTxn.setTargetAccount(null);
-        withdrawTxn.setRemarks("Self Withdrawal");
-        transactionRepository.save(withdrawTxn);
-
-        return account;
+        return retryExecutor.execute(() -> {
+            BigDecimal balance = postingStrategy.debit(accountId, delta);
+            Account account = getAccountById(accountId);
+
+            Transaction withdrawTxn = new Transaction();
+            withdrawTxn.setTransactionType("DEBIT");
+            withdrawTxn.setTransactionAmount(delta);
+            withdrawTxn.setTransactionDate(LocalDateTime.now());
+            withdrawTxn.setSourceAccount(account);
+            withdrawTxn.setSourceBalanceAfter(balance);
+            withdrawTxn.setTargetAccount(null);
+            withdrawTxn.setRemarks("Self Withdrawal");
+            historyCache.recordPosted(List.of(transactionRepository.save(withdrawTxn)));
+
+            return account;
+        });
     }
 
     @Override
     public Account getMyAccount(String email) {
+        // Callers arriving while the same user's read is in flight share its result
+        return singleFlight.execute(SingleFlight.key("getMyAccount", email), () -> readMyAccount(email));
+    }
+
+    private Account readMyAccount(String email) {
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         if (user.getCustomer() == null) {
@@ -159,6 +188,19 @@ public class AccountServiceImpl implements AccountService {
             throw new ResourceNotFoundException("No accounts found for this user");
         }
         Account account = accounts.get(0);
-        return account;
+        if (balanceEngine != null) {
+            // The table lags the engine by the write-behind interval
+            return balanceEngine.balanceOf(account.getAccountId())
+                    .map(balance -> withBalance(account, balance))
+                    .orElse(withBalance(account, account.getBalance()));
+        }
+        // Shared between coalesced callers, so none of them gets an entity attached to another's session
+        return withBalance(account, account.getBalance());
+    }
+
+    // Detached copy, so the engine's balance is never flushed over the table by a later transaction
+    private Account withBalance(Account account, BigDecimal balance) {
+        return new Account(account.getAccountId(), account.getAccountName(), account.getAccountType(),
+                account.getRemarks(), balance, account.getCustomer(), account.getVersion());
     }
 }
@@ -0,0 +1,70 @@
+package com.HCLBank.banking.service.impl;
+
+import com.HCLBank.banking.exception.InsufficientBalanceException;
+import com.HCLBank.banking.exception.ResourceNotFoundException;
+import com.HCLBank.banking.repository.AccountRepository;
+import com.HCLBank.banking.service.PostingStrategy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+@Component
+@ConditionalOnProperty(name = "banking.posting.mode", havingValue = "ATOMIC", matchIfMissing = true)
+public class AtomicPostingStrategy implements PostingStrategy {
+
+    private final AccountRepository accountRepository;
+
+    public AtomicPostingStrategy(AccountRepository accountRepository) {
+        this.accountRepository = accountRepository;
+    }
+
+    @Override
+    public TransferBalances transfer(Long sourceAccountId, Long targetAccountId, BigDecimal amount) {
+        // Touch rows in ascending id order so opposite transfers between a pair cannot deadlock
+        if (sourceAccountId < targetAccountId) {
+            debitSource(sourceAccountId, amount);
+            creditTarget(targetAccountId, amount);
+        } else {
+            creditTarget(targetAccountId, amount);
+            debitSource(sourceAccountId, amount);
+        }
+        // Both rows are locked by the updates above, so these reads see exactly this transfer's result
+        return new TransferBalances(accountRepository.findBalanceById(sourceAccountId).orElse(BigDecimal.ZERO),
+                accountRepository.findBalanceById(targetAccountId).orElse(amount));
+    }
+
+    @Override
+    public BigDecimal credit(Long accountId, BigDecimal amount) {
+        if (accountRepository.credit(accountId, amount) == 0) {
+            throw new ResourceNotFoundException("Account not found");
+        }
+        return accountRepository.findBalanceById(accountId).orElse(amount);
+    }
+
+    @Override
+    public BigDecimal debit(Long accountId, BigDecimal amount) {
+        if (accountRepository.debit(accountId, amount) == 0) {
+            if (!accountRepository.existsById(accountId)) {
+                throw new ResourceNotFoundException("Account not found");
+            }
+            throw new InsufficientBalanceException("Insufficient balance");
+        }
+        return accountRepository.findBalanceById(accountId).orElse(BigDecimal.ZERO);
+    }
+
+    private void debitSource(Long sourceAccountId, BigDecimal amount) {
+        if (accountRepository.debit(sourceAccountId, amount) == 0) {
+            if (!accountRepository.existsById(sourceAccountId)) {
+                throw new RuntimeException("Source account not found");
+            }
+            throw new InsufficientBalanceException("Insufficient balance in source account");
+        }
+    }
+
+    private void creditTarget(Long targetAccountId, BigDecimal amount) {
+        if (accountRepository.credit(targetAccountId, amount) == 0) {
+            throw new RuntimeException("Target account not found");
+        }
+    }
+}
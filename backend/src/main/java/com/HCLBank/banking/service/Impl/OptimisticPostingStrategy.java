@@ -0,0 +1,77 @@
+package com.HCLBank.banking.service.impl;
+
+import com.HCLBank.banking.entity.Account;
+import com.HCLBank.banking.exception.InsufficientBalanceException;
+import com.HCLBank.banking.exception.ResourceNotFoundException;
+import com.HCLBank.banking.repository.AccountRepository;
+import com.HCLBank.banking.service.PostingStrategy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Reads accounts without locking and relies on the {@code version} column: a concurrent
+ * change makes the versioned UPDATE at flush fail, and TransactionRetryExecutor re-runs
+ * the operation against fresh balances. No row lock is held while the method runs.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.posting.mode", havingValue = "OPTIMISTIC")
+public class OptimisticPostingStrategy implements PostingStrategy {
+
+    private final AccountRepository accountRepository;
+
+    public OptimisticPostingStrategy(AccountRepository accountRepository) {
+        this.accountRepository = accountRepository;
+    }
+
+    @Override
+    public TransferBalances transfer(Long sourceAccountId, Long targetAccountId, BigDecimal amount) {
+        // Loading in id order makes the flush issue its UPDATEs in id order as well
+        Account sourceAccount;
+        Account targetAccount;
+        if (sourceAccountId < targetAccountId) {
+            sourceAccount = accountRepository.findById(sourceAccountId)
+                    .orElseThrow(() -> new RuntimeException("Source account not found"));
+            targetAccount = accountRepository.findById(targetAccountId)
+                    .orElseThrow(() -> new RuntimeException("Target account not found"));
+        } else {
+            targetAccount = accountRepository.findById(targetAccountId)
+                    .orElseThrow(() -> new RuntimeException("Target account not found"));
+            sourceAccount = accountRepository.findById(sourceAccountId)
+                    .orElseThrow(() -> new RuntimeException("Source account not found"));
+        }
+
+        BigDecimal sourceBalance = balanceOf(sourceAccount);
+        if (sourceBalance.compareTo(amount) < 0) {
+            throw new InsufficientBalanceException("Insufficient balance in source account");
+        }
+        sourceAccount.setBalance(sourceBalance.subtract(amount));
+        targetAccount.setBalance(balanceOf(targetAccount).add(amount));
+        return new TransferBalances(sourceAccount.getBalance(), targetAccount.getBalance());
+    }
+
+    @Override
+    public BigDecimal credit(Long accountId, BigDecimal amount) {
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+        account.setBalance(balanceOf(account).add(amount));
+        return account.getBalance();
+    }
+
+    @Override
+    public BigDecimal debit(Long accountId, BigDecimal amount) {
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+        BigDecimal current = balanceOf(account);
+        if (current.compareTo(amount) < 0) {
+            throw new InsufficientBalanceException("Insufficient balance");
+        }
+        account.setBalance(current.subtract(amount));
+        return account.getBalance();
+    }
+
+    private BigDecimal balanceOf(Account account) {
+        return account.getBalance() == null ? BigDecimal.ZERO : account.getBalance();
+    }
+}
@@ -0,0 +1,84 @@
+package com.HCLBank.banking.service.impl;
+
+import com.HCLBank.banking.entity.Account;
+import com.HCLBank.banking.exception.InsufficientBalanceException;
+import com.HCLBank.banking.exception.ResourceNotFoundException;
+import com.HCLBank.banking.repository.AccountRepository;
+import com.HCLBank.banking.service.PostingMetrics;
+import com.HCLBank.banking.service.PostingStrategy;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Takes {@code SELECT ... FOR UPDATE} row locks on the accounts involved, always in
+ * ascending account id order, so two transfers over the same pair of accounts queue
+ * behind each other instead of deadlocking.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.posting.mode", havingValue = "ORDERED_LOCK")
+public class OrderedLockPostingStrategy implements PostingStrategy {
+
+    private final AccountRepository accountRepository;
+    private final PostingMetrics postingMetrics;
+
+    public OrderedLockPostingStrategy(AccountRepository accountRepository,
+                                      PostingMetrics postingMetrics) {
+        this.accountRepository = accountRepository;
+        this.postingMetrics = postingMetrics;
+    }
+
+    @Override
+    public TransferBalances transfer(Long sourceAccountId, Long targetAccountId, BigDecimal amount) {
+        Account sourceAccount;
+        Account targetAccount;
+        if (sourceAccountId < targetAccountId) {
+            sourceAccount = lock(sourceAccountId).orElseThrow(() -> new RuntimeException("Source account not found"));
+            targetAccount = lock(targetAccountId).orElseThrow(() -> new RuntimeException("Target account not found"));
+        } else {
+            targetAccount = lock(targetAccountId).orElseThrow(() -> new RuntimeException("Target account not found"));
+            sourceAccount = lock(sourceAccountId).orElseThrow(() -> new RuntimeException("Source account not found"));
+        }
+
+        BigDecimal sourceBalance = balanceOf(sourceAccount);
+        if (sourceBalance.compareTo(amount) < 0) {
+            throw new InsufficientBalanceException("Insufficient balance in source account");
+        }
+        sourceAccount.setBalance(sourceBalance.subtract(amount));
+        targetAccount.setBalance(balanceOf(targetAccount).add(amount));
+        return new TransferBalances(sourceAccount.getBalance(), targetAccount.getBalance());
+    }
+
+    @Override
+    public BigDecimal credit(Long accountId, BigDecimal amount) {
+        Account account = lock(accountId).orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+        account.setBalance(balanceOf(account).add(amount));
+        return account.getBalance();
+    }
+
+    @Override
+    public BigDecimal debit(Long accountId, BigDecimal amount) {
+        Account account = lock(accountId).orElseThrow(() -> new ResourceNotFoundException("Account not found"));
+        BigDecimal current = balanceOf(account);
+        if (current.compareTo(amount) < 0) {
+            throw new InsufficientBalanceException("Insufficient balance");
+        }
+        account.setBalance(current.subtract(amount));
+        return account.getBalance();
+    }
+
+    private Optional<Account> lock(Long accountId) {
+        long start = System.nanoTime();
+        try {
+            return accountRepository.findByIdForUpdate(accountId);
+        } finally {
+            postingMetrics.recordLockWait(System.nanoTime() - start);
+        }
+    }
+
+    private BigDecimal balanceOf(Account account) {
+        return account.getBalance() == null ? BigDecimal.ZERO : account.getBalance();
+    }
+}
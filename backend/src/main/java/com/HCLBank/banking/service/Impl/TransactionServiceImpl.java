@@ -1,18 +1,56 @@
 package com.HCLBank.banking.service.impl;
 
+import com.HCLBank.banking.dto.BalanceAtDTO;
+import com.HCLBank.banking.dto.BatchTransferResponseDTO;
 import com.HCLBank.banking.dto.TransactionHistoryDTO;
+import com.HCLBank.banking.dto.TransactionHistoryPageDTO;
+import com.HCLBank.banking.dto.TransferRequestDTO;
+import com.HCLBank.banking.dto.TransferResultDTO;
+import com.HCLBank.banking.dto.UpiPaymentRequestDTO;
+import com.HCLBank.banking.dto.UpiPaymentResponseDTO;
+import com.HCLBank.banking.dto.UserSearchResponseDTO;
 import com.HCLBank.banking.entity.Account;
 import com.HCLBank.banking.entity.Transaction;
+import com.HCLBank.banking.exception.InsufficientBalanceException;
+import com.HCLBank.banking.exception.InvalidOperationException;
+import com.HCLBank.banking.exception.ResourceNotFoundException;
 import com.HCLBank.banking.repository.AccountRepository;
+import com.HCLBank.banking.repository.LedgerBalanceRow;
+import com.HCLBank.banking.repository.LedgerJdbcRepository;
+import com.HCLBank.banking.repository.TransactionExportRepository;
+import com.HCLBank.banking.repository.TransactionHistoryRow;
 import com.HCLBank.banking.repository.TransactionRepository;
+import com.HCLBank.banking.service.HistoryCache;
+import com.HCLBank.banking.service.PostingStrategy;
+import com.HCLBank.banking.service.SingleFlight;
+import com.HCLBank.banking.service.TransactionRetryExecutor;
 import com.HCLBank.banking.service.TransactionService;
+import com.HCLBank.banking.service.UserService;
+import com.HCLBank.banking.service.engine.BalanceEngine;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,18 +58,99 @@ public class TransactionServiceImpl implements TransactionService {
 
     private final TransactionRepository transactionRepository;
     private final AccountRepository accountRepository;
+    private final PostingStrategy postingStrategy;
+    private final TransactionRetryExecutor retryExecutor;
+    private final BalanceEngine balanceEngine;
+    private final LedgerJdbcRepository ledgerJdbcRepository;
+    private final TransactionExportRepository transactionExportRepository;
+    private final ObjectMapper objectMapper;
+    private final HistoryCache historyCache;
+    private final SingleFlight singleFlight;
+    private final UserService userService;
+
+    // Open-ended date filters; both fit in a MySQL DATETIME
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    @Value("${banking.history.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${banking.history.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${banking.transfer.batch-max-size:1000}")
+    private int batchMaxSize;
+
+    @Value("${banking.transfer.batch-chunk-size:500}")
+    private int batchChunkSize;
 
     public TransactionServiceImpl(TransactionRepository transactionRepository,
-                                  AccountRepository accountRepository) {
+                                  AccountRepository accountRepository,
+                                  LedgerJdbcRepository ledgerJdbcRepository,
+                                  TransactionExportRepository transactionExportRepository,
+                                  ObjectMapper objectMapper,
+                                  HistoryCache historyCache,
+                                  SingleFlight singleFlight,
+                                  UserService userService,
+                                  PostingStrategy postingStrategy,
+                                  TransactionRetryExecutor retryExecutor,
+                                  ObjectProvider<BalanceEngine> balanceEngine) {
         this.transactionRepository = transactionRepository;
         this.accountRepository = accountRepository;
+        this.ledgerJdbcRepository = ledgerJdbcRepository;
+        this.transactionExportRepository = transactionExportRepository;
+        this.objectMapper = objectMapper;
+        this.historyCache = historyCache;
+        this.singleFlight = singleFlight;
+        this.userService = userService;
+        this.postingStrategy = postingStrategy;
+        this.retryExecutor = retryExecutor;
+        this.balanceEngine = balanceEngine.getIfAvailable();
     }
 
     @Override
-    @Transactional
     public void transfer(Long sourceAccountId,
                          Long targetAccountId,
                          BigDecimal amount) {
+        validateTransfer(sourceAccountId, targetAccountId, amount);
+
+        if (balanceEngine != null) {
+            balanceEngine.transfer(sourceAccountId, targetAccountId, amount);
+            return;
+        }
+
+        retryExecutor.executeWithoutResult(() -> {
+            PostingStrategy.TransferBalances balances = postingStrategy.transfer(sourceAccountId, targetAccountId, amount);
+            recordTransfer(sourceAccountId, targetAccountId, amount, balances);
+        });
+    }
+
+    @Override
+    public UpiPaymentResponseDTO payUpi(UpiPaymentRequestDTO request) {
+        if (request == null || request.getUpiId() == null || request.getUpiId().isBlank()) {
+            throw new InvalidOperationException("UPI ID is required");
+        }
+        // In the database posting modes, resolution and posting share one transaction and a retry resolves
+        // the payee again. With the balance engine on, the transfer is posted outside that transaction, so it
+        // goes to the account resolved just before, exactly as if the client had resolved and then transferred.
+        return retryExecutor.execute(() -> {
+            UserSearchResponseDTO payee = userService.searchByUpiId(request.getUpiId());
+            if (payee.getAccountId() == null) {
+                throw new InvalidOperationException("Payee has no account to receive payments");
+            }
+            transfer(request.getSourceAccountId(), payee.getAccountId(), request.getAmount());
+            return UpiPaymentResponseDTO.builder()
+                    .sourceAccountId(request.getSourceAccountId())
+                    .targetAccountId(payee.getAccountId())
+                    .upiId(payee.getUpiId())
+                    .payeeName(payee.getName())
+                    .amount(request.getAmount())
+                    .status("SUCCESS")
+                    .build();
+        });
+    }
+
+    private void validateTransfer(Long sourceAccountId, Long targetAccountId, BigDecimal amount) {
         if (sourceAccountId == null || targetAccountId == null) {
             throw new RuntimeException("Source and Target account IDs are required");
         }
@@ -40,80 +159,336 @@ public class TransactionServiceImpl implements TransactionService {
             throw new RuntimeException("Source and Target accounts cannot be same");
         }
 
-        if (amount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
             throw new RuntimeException("Transfer amount must be positive");
         }
+    }
+
+    private void recordTransfer(Long sourceAccountId, Long targetAccountId, BigDecimal amount,
+                                PostingStrategy.TransferBalances balances) {
+        Transaction entry = transactionRepository.save(transferEntry(accountRepository.getReferenceById(sourceAccountId),
+                accountRepository.getReferenceById(targetAccountId), amount, balances));
+        historyCache.recordPosted(List.of(entry));
+    }
+
+    // One row per transfer; each side reads it as DEBIT or CREDIT in getHistory
+    private Transaction transferEntry(Account sourceAccount, Account targetAccount, BigDecimal amount,
+                                      PostingStrategy.TransferBalances balances) {
+        Transaction transferTxn = new Transaction();
+        transferTxn.setTransactionType("TRANSFER");
+        transferTxn.setTransactionAmount(amount);
+        transferTxn.setTransactionDate(LocalDateTime.now());
+        transferTxn.setSourceAccount(sourceAccount);
+        transferTxn.setTargetAccount(targetAccount);
+        transferTxn.setSourceBalanceAfter(balances.source());
+        transferTxn.setTargetBalanceAfter(balances.target());
+        transferTxn.setTransferId(UUID.randomUUID().toString());
+        return transferTxn;
+    }
+
+    @Override
+    public BatchTransferResponseDTO transferBatch(List<TransferRequestDTO> requests) {
+        if (requests == null || requests.isEmpty()) {
+            throw new InvalidOperationException("At least one transfer is required");
+        }
+        if (requests.size() > batchMaxSize) {
+            throw new InvalidOperationException("A batch cannot contain more than " + batchMaxSize + " transfers");
+        }
 
-        Account sourceAccount = accountRepository.findById(sourceAccountId)
-                .orElseThrow(() -> new RuntimeException("Source account not found"));
+        // Each chunk commits on its own, so a huge batch does not hold every row lock until the end
+        List<TransferResultDTO> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += batchChunkSize) {
+            int offset = from;
+            List<TransferRequestDTO> chunk = requests.subList(from, Math.min(from + batchChunkSize, requests.size()));
+            if (balanceEngine != null) {
+                results.addAll(transferChunkThroughEngine(offset, chunk));
+            } else {
+                results.addAll(retryExecutor.execute(() -> transferChunk(offset, chunk)));
+            }
+        }
 
-        Account targetAccount = accountRepository.findById(targetAccountId)
-                .orElseThrow(() -> new RuntimeException("Target account not found"));
+        int succeeded = (int) results.stream().filter(r -> "SUCCESS".equals(r.getStatus())).count();
+        return BatchTransferResponseDTO.builder()
+                .succeeded(succeeded)
+                .failed(results.size() - succeeded)
+                .results(results)
+                .build();
+    }
 
-        BigDecimal sourceBalance = sourceAccount.getBalance() == null ? BigDecimal.ZERO : sourceAccount.getBalance();
-        BigDecimal targetBalance = targetAccount.getBalance() == null ? BigDecimal.ZERO : targetAccount.getBalance();
+    private List<TransferResultDTO> transferChunk(int offset, List<TransferRequestDTO> chunk) {
+        Set<Long> accountIds = new TreeSet<>();
+        for (TransferRequestDTO request : chunk) {
+            if (request != null && request.getSourceAccountId() != null && request.getTargetAccountId() != null) {
+                accountIds.add(request.getSourceAccountId());
+                accountIds.add(request.getTargetAccountId());
+            }
+        }
+        Map<Long, Account> accounts = ledgerJdbcRepository.lockAccounts(accountIds);
 
-        if (sourceBalance.compareTo(amount) < 0) {
-            throw new RuntimeException("Insufficient balance in source account");
+        Map<Long, Account> touched = new LinkedHashMap<>();
+        List<Transaction> entries = new ArrayList<>(chunk.size());
+        List<TransferResultDTO> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            TransferRequestDTO request = chunk.get(i);
+            try {
+                if (request == null) {
+                    throw new RuntimeException("Source and Target account IDs are required");
+                }
+                validateTransfer(request.getSourceAccountId(), request.getTargetAccountId(), request.getAmount());
+                Account source = accounts.get(request.getSourceAccountId());
+                if (source == null) {
+                    throw new RuntimeException("Source account not found");
+                }
+                Account target = accounts.get(request.getTargetAccountId());
+                if (target == null) {
+                    throw new RuntimeException("Target account not found");
+                }
+                if (source.getBalance().compareTo(request.getAmount()) < 0) {
+                    throw new InsufficientBalanceException("Insufficient balance in source account");
+                }
+
+                source.setBalance(source.getBalance().subtract(request.getAmount()));
+                target.setBalance(target.getBalance().add(request.getAmount()));
+                touched.put(source.getAccountId(), source);
+                touched.put(target.getAccountId(), target);
+                entries.add(transferEntry(source, target, request.getAmount(),
+                        new PostingStrategy.TransferBalances(source.getBalance(), target.getBalance())));
+                results.add(transferResult(offset + i, request, null));
+            } catch (RuntimeException ex) {
+                results.add(transferResult(offset + i, request, ex.getMessage()));
+            }
         }
 
-        sourceAccount.setBalance(sourceBalance.subtract(amount));
-        targetAccount.setBalance(targetBalance.add(amount));
-        accountRepository.save(sourceAccount);
-        accountRepository.save(targetAccount);
+        ledgerJdbcRepository.updateBalances(touched.values());
+        ledgerJdbcRepository.insertTransactions(entries);
+        historyCache.recordPosted(entries);
+        return results;
+    }
 
-        Transaction senderTxn = new Transaction();
-        senderTxn.setTransactionType("DEBIT");
-        senderTxn.setTransactionAmount(amount);
-        senderTxn.setTransactionDate(LocalDateTime.now());
-        senderTxn.setSourceAccount(sourceAccount);
-        senderTxn.setTargetAccount(null);
-        senderTxn.setRemarks("Sent to " + targetAccount.getAccountName());
-        transactionRepository.save(senderTxn);
+    private List<TransferResultDTO> transferChunkThroughEngine(int offset, List<TransferRequestDTO> chunk) {
+        List<TransferResultDTO> results = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            TransferRequestDTO request = chunk.get(i);
+            try {
+                if (request == null) {
+                    throw new RuntimeException("Source and Target account IDs are required");
+                }
+                transfer(request.getSourceAccountId(), request.getTargetAccountId(), request.getAmount());
+                results.add(transferResult(offset + i, request, null));
+            } catch (RuntimeException ex) {
+                results.add(transferResult(offset + i, request, ex.getMessage()));
+            }
+        }
+        return results;
+    }
 
-        Transaction receiverTxn = new Transaction();
-        receiverTxn.setTransactionType("CREDIT");
-        receiverTxn.setTransactionAmount(amount);
-        receiverTxn.setTransactionDate(LocalDateTime.now());
-        receiverTxn.setSourceAccount(null);
-        receiverTxn.setTargetAccount(targetAccount);
-        receiverTxn.setRemarks("Received from " + sourceAccount.getAccountName());
-        transactionRepository.save(receiverTxn);
+    private TransferResultDTO transferResult(int index, TransferRequestDTO request, String error) {
+        return TransferResultDTO.builder()
+                .index(index)
+                .sourceAccountId(request == null ? null : request.getSourceAccountId())
+                .targetAccountId(request == null ? null : request.getTargetAccountId())
+                .amount(request == null ? null : request.getAmount())
+                .status(error == null ? "SUCCESS" : "FAILED")
+                .message(error)
+                .build();
     }
 
     @Override
-    public List<TransactionHistoryDTO> getHistory(Long accountId) {
-        List<Transaction> transactions = transactionRepository.findBySourceAccountAccountIdOrTargetAccountAccountIdOrderByTransactionDateDesc(accountId, accountId);
-
-        return transactions.stream().map(t -> {
-            String type;
-            String txnType = t.getTransactionType() == null ? "" : t.getTransactionType().toUpperCase();
-            if ("DEBIT".equals(txnType) || "WITHDRAW".equals(txnType)) {
-                type = "DEBIT";
-            } else if ("CREDIT".equals(txnType) || "DEPOSIT".equals(txnType)) {
-                type = "CREDIT";
+    public TransactionHistoryPageDTO getHistory(Long accountId, String cursor, Integer limit,
+                                                LocalDate from, LocalDate to, String type) {
+        int pageSize = limit == null ? defaultPageSize : Math.min(Math.max(limit, 1), maxPageSize);
+        String direction = parseDirection(type);
+        LocalDateTime fromDate = startOf(from);
+        LocalDateTime toDate = endOf(to);
+
+        String[] position = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor);
+        LocalDateTime beforeDate = position == null ? toDate : LocalDateTime.parse(position[0]);
+        Long beforeId = position == null ? Long.MAX_VALUE : Long.parseLong(position[1]);
+
+        // Identical concurrent reads share one query; the stamp moves with every posting on the
+        // account, so a read starting after a committed posting never joins an older query
+        String key = SingleFlight.key("getHistory", accountId, historyCache.stamp(accountId),
+                direction, fromDate, toDate, beforeDate, beforeId, pageSize);
+        List<TransactionHistoryRow> rows = singleFlight.execute(key,
+                () -> readHistory(accountId, direction, fromDate, toDate, beforeDate, beforeId, pageSize));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<TransactionHistoryRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            TransactionHistoryRow last = page.get(page.size() - 1);
+            nextCursor = encodeCursor(last.getTransactionDate(), last.getTransactionId());
+        }
+
+        return TransactionHistoryPageDTO.builder()
+                .items(page.stream().map(this::toHistory).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    private List<TransactionHistoryRow> readHistory(Long accountId, String direction,
+                                                    LocalDateTime fromDate, LocalDateTime toDate,
+                                                    LocalDateTime beforeDate, Long beforeId, int pageSize) {
+        boolean unfiltered = direction == null && EARLIEST.equals(fromDate) && LATEST.equals(toDate);
+        if (unfiltered && historyCache.isEnabled() && pageSize < historyCache.getEntriesPerAccount()) {
+            return cachedHistory(accountId, beforeDate, beforeId, pageSize + 1);
+        }
+        // A row is a DEBIT for the account exactly when the account is its source
+        return transactionRepository.findHistoryPage(accountId,
+                !"CREDIT".equals(direction), !"DEBIT".equals(direction),
+                fromDate, toDate, beforeDate, beforeId, pageSize + 1);
+    }
+
+    // Unfiltered pages come from the cached window when it covers them; a first page loads the window
+    private List<TransactionHistoryRow> cachedHistory(Long accountId, LocalDateTime beforeDate, Long beforeId, int count) {
+        List<TransactionHistoryRow> cached = historyCache.find(accountId, beforeDate, beforeId, count);
+        if (cached != null) {
+            return cached;
+        }
+        if (beforeId != Long.MAX_VALUE) {
+            return transactionRepository.findHistoryPage(accountId, true, true,
+                    EARLIEST, LATEST, beforeDate, beforeId, count);
+        }
+        long stamp = historyCache.stamp(accountId);
+        List<TransactionHistoryRow> window = transactionRepository.findHistoryPage(accountId, true, true,
+                EARLIEST, LATEST, LATEST, Long.MAX_VALUE, historyCache.getEntriesPerAccount() + 1);
+        historyCache.install(accountId, stamp, window);
+        return window.subList(0, Math.min(count, window.size()));
+    }
+
+    @Override
+    public BalanceAtDTO getBalanceAt(Long accountId, LocalDateTime at) {
+        LocalDateTime point = at == null ? LocalDateTime.now() : at;
+        BigDecimal balance;
+        Long transactionId = null;
+        List<LedgerBalanceRow> latest = transactionRepository.findLatestBalanceAt(accountId, point);
+        if (!latest.isEmpty()) {
+            LedgerBalanceRow row = latest.get(0);
+            balance = requireBalance(row);
+            transactionId = row.getTransactionId();
+        } else {
+            // Before the first row the balance is what that row started from (an opening balance
+            // set without a ledger entry); with no rows at all it is the current balance
+            List<LedgerBalanceRow> earliest = transactionRepository.findEarliestBalanceAfter(accountId, point);
+            if (!earliest.isEmpty()) {
+                LedgerBalanceRow row = earliest.get(0);
+                balance = "DEBIT".equals(row.getDirection())
+                        ? requireBalance(row).add(row.getAmount())
+                        : requireBalance(row).subtract(row.getAmount());
             } else {
-                boolean isSource = t.getSourceAccount() != null && t.getSourceAccount().getAccountId().equals(accountId);
-                type = isSource ? "DEBIT" : "CREDIT";
+                balance = accountRepository.findBalanceById(accountId)
+                        .orElseThrow(() -> new ResourceNotFoundException("Account not found"));
             }
+        }
+        return BalanceAtDTO.builder()
+                .accountId(accountId)
+                .at(point)
+                .balance(balance)
+                .transactionId(transactionId)
+                .build();
+    }
+
+    private BigDecimal requireBalance(LedgerBalanceRow row) {
+        if (row.getBalanceAfter() == null) {
+            throw new InvalidOperationException("Running balances for this account have not been backfilled yet");
+        }
+        return row.getBalanceAfter();
+    }
 
-            String otherParty = "Unknown";
-            if (t.getRemarks() != null && !t.getRemarks().isBlank()
-                    && (t.getSourceAccount() == null || t.getTargetAccount() == null)) {
-                otherParty = t.getRemarks();
-            } else if (t.getTargetAccount() != null) {
-                otherParty = t.getTargetAccount().getAccountName();
-            } else if (t.getSourceAccount() != null) {
-                otherParty = t.getSourceAccount().getAccountName();
+    @Override
+    public StreamingResponseBody exportHistory(Long accountId, LocalDate from, LocalDate to,
+                                               String type, String format) {
+        String direction = parseDirection(type);
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        if (!ndjson && !"csv".equalsIgnoreCase(format)) {
+            throw new InvalidOperationException("Format must be csv or ndjson");
+        }
+        LocalDateTime fromDate = startOf(from);
+        LocalDateTime toDate = endOf(to);
+
+        // Validation above runs before the response starts; rows are written as the cursor yields them
+        return out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            if (!ndjson) {
+                writer.write("date,type,otherParty,amount,status,balanceAfter\n");
             }
+            transactionExportRepository.streamHistory(accountId, !"CREDIT".equals(direction),
+                    !"DEBIT".equals(direction), fromDate, toDate, row -> {
+                        TransactionHistoryDTO line = toHistory(row);
+                        try {
+                            writer.write(ndjson ? objectMapper.writeValueAsString(line) : toCsv(line));
+                            writer.write('\n');
+                        } catch (IOException ex) {
+                            throw new UncheckedIOException(ex);
+                        }
+                    });
+            writer.flush();
+        };
+    }
 
-            return TransactionHistoryDTO.builder()
-                    .date(t.getTransactionDate())
-                    .amount(t.getTransactionAmount())
-                    .type(type)
-                    .otherParty(otherParty)
-                    .status("SUCCESS")
-                    .build();
-        }).collect(Collectors.toList());
+    private String toCsv(TransactionHistoryDTO line) {
+        return line.getDate() + "," + line.getType() + "," + csvField(line.getOtherParty()) + ","
+                + line.getAmount().toPlainString() + "," + line.getStatus() + ","
+                + (line.getBalanceAfter() == null ? "" : line.getBalanceAfter().toPlainString());
+    }
+
+    private String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private String parseDirection(String type) {
+        String direction = type == null || type.isBlank() ? null : type.trim().toUpperCase();
+        if (direction != null && !"DEBIT".equals(direction) && !"CREDIT".equals(direction)) {
+            throw new InvalidOperationException("Type must be DEBIT or CREDIT");
+        }
+        return direction;
+    }
+
+    private LocalDateTime startOf(LocalDate from) {
+        return from == null ? EARLIEST : from.atStartOfDay();
+    }
+
+    // The to date is inclusive
+    private LocalDateTime endOf(LocalDate to) {
+        return to == null ? LATEST : to.plusDays(1).atStartOfDay();
+    }
+
+    private TransactionHistoryDTO toHistory(TransactionHistoryRow row) {
+        // Transfers name the other account; one-sided rows (deposits, withdrawals, legacy
+        // transfer halves) carry their description in remarks
+        String otherParty = "Unknown";
+        if (row.getCounterpartyName() != null) {
+            otherParty = row.getCounterpartyName();
+        } else if (row.getRemarks() != null && !row.getRemarks().isBlank()) {
+            otherParty = row.getRemarks();
+        }
+
+        return TransactionHistoryDTO.builder()
+                .date(row.getTransactionDate())
+                .amount(row.getAmount())
+                .type(row.getDirection())
+                .otherParty(otherParty)
+                .status("SUCCESS")
+                .balanceAfter(row.getBalanceAfter())
+                .build();
+    }
+
+    private String encodeCursor(LocalDateTime date, Long transactionId) {
+        String position = date + "|" + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String[] decodeCursor(String cursor) {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+            LocalDateTime.parse(position[0]);
+            Long.parseLong(position[1]);
+            return position;
+        } catch (RuntimeException ex) {
+            throw new InvalidOperationException("Invalid cursor");
+        }
     }
 }
@@ -0,0 +1,99 @@
+package com.HCLBank.banking.service;
+
+import com.HCLBank.banking.repository.LedgerJdbcRepository;
+import com.HCLBank.banking.repository.LedgerJdbcRepository.RunningBalanceRow;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fills in the running balance of ledger rows written before balances were recorded. Each
+ * account is walked from its newest row backwards, starting from its current balance (or from
+ * the nearest row that already has one) and undoing one row at a time. The first chunk of an
+ * account is read under its row lock so the starting balance matches its newest row; later
+ * chunks only touch older rows and commit on their own, so the job can run on a live system
+ * and be run again if interrupted.
+ */
+@Component
+public class LedgerBalanceBackfill {
+
+    // Open-ended position before the newest row; fits in a MySQL DATETIME
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    private final LedgerJdbcRepository ledgerJdbcRepository;
+    private final TransactionRetryExecutor retryExecutor;
+    private final HistoryCache historyCache;
+
+    @Value("${banking.ledger.backfill-chunk-size:1000}")
+    private int chunkSize;
+
+    public LedgerBalanceBackfill(LedgerJdbcRepository ledgerJdbcRepository,
+                                 TransactionRetryExecutor retryExecutor,
+                                 HistoryCache historyCache) {
+        this.ledgerJdbcRepository = ledgerJdbcRepository;
+        this.retryExecutor = retryExecutor;
+        this.historyCache = historyCache;
+    }
+
+    public long backfillRunningBalances() {
+        long updated = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> accountIds = ledgerJdbcRepository.accountIdsAfter(afterId, chunkSize);
+            if (accountIds.isEmpty()) {
+                // Cached history still has the entries without their balances
+                historyCache.clear();
+                return updated;
+            }
+            for (Long accountId : accountIds) {
+                updated += backfillAccount(accountId);
+            }
+            afterId = accountIds.get(accountIds.size() - 1);
+        }
+    }
+
+    private long backfillAccount(long accountId) {
+        Position first = retryExecutor.execute(() -> backfillChunk(accountId,
+                new Position(ledgerJdbcRepository.lockBalance(accountId), LATEST, Long.MAX_VALUE, 0, false)));
+        long updated = first.updated();
+        Position position = first;
+        while (!position.done()) {
+            Position from = position;
+            position = retryExecutor.execute(() -> backfillChunk(accountId, from));
+            updated += position.updated();
+        }
+        return updated;
+    }
+
+    private Position backfillChunk(long accountId, Position from) {
+        List<RunningBalanceRow> rows = ledgerJdbcRepository.runningBalancesBefore(
+                accountId, from.beforeDate(), from.beforeId(), chunkSize);
+        List<Object[]> sourceBalances = new ArrayList<>();
+        List<Object[]> targetBalances = new ArrayList<>();
+        BigDecimal balance = from.balance();
+        for (RunningBalanceRow row : rows) {
+            if (row.balanceAfter() != null) {
+                balance = row.balanceAfter();
+            } else {
+                (row.debit() ? sourceBalances : targetBalances).add(new Object[]{balance, row.transactionId()});
+            }
+            // Balance just before this row, which is the balance after the next older one
+            balance = row.debit() ? balance.add(row.amount()) : balance.subtract(row.amount());
+        }
+        ledgerJdbcRepository.updateRunningBalances(sourceBalances, targetBalances);
+
+        if (rows.isEmpty()) {
+            return new Position(balance, from.beforeDate(), from.beforeId(), 0, true);
+        }
+        RunningBalanceRow oldest = rows.get(rows.size() - 1);
+        return new Position(balance, oldest.transactionDate(), oldest.transactionId(),
+                sourceBalances.size() + targetBalances.size(), rows.size() < chunkSize);
+    }
+
+    private record Position(BigDecimal balance, LocalDateTime beforeDate, long beforeId, int updated, boolean done) {
+    }
+}
@@ -0,0 +1,52 @@
+package com.HCLBank.banking.service;
+
+import com.HCLBank.banking.repository.LedgerJdbcRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Rewrites transfers recorded as a DEBIT row plus a CREDIT row into the single TRANSFER row
+ * used today. Runs in chunks, each in its own transaction, so it can be started on a live
+ * system and simply run again if interrupted. Rows it cannot pair with certainty are left
+ * alone; the history endpoint still reads both shapes.
+ */
+@Component
+public class LegacyTransferMigration {
+
+    private final LedgerJdbcRepository ledgerJdbcRepository;
+    private final TransactionRetryExecutor retryExecutor;
+    private final HistoryCache historyCache;
+
+    @Value("${banking.ledger.migration-chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${banking.ledger.migration-max-gap-seconds:2}")
+    private int maxGapSeconds;
+
+    public LegacyTransferMigration(LedgerJdbcRepository ledgerJdbcRepository,
+                                   TransactionRetryExecutor retryExecutor,
+                                   HistoryCache historyCache) {
+        this.ledgerJdbcRepository = ledgerJdbcRepository;
+        this.retryExecutor = retryExecutor;
+        this.historyCache = historyCache;
+    }
+
+    public int mergeLegacyTransfers() {
+        int merged = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<Long> mergedIds = retryExecutor.execute(
+                    () -> ledgerJdbcRepository.mergeLegacyTransferPairs(from, chunkSize, maxGapSeconds));
+            if (mergedIds.isEmpty()) {
+                // Cached history still shows the merged pairs as two rows
+                historyCache.clear();
+                return merged;
+            }
+            merged += mergedIds.size();
+            afterId = mergedIds.get(mergedIds.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.HCLBank.banking.service;
+
+import com.HCLBank.banking.dto.UserSearchResponseDTO;
+import com.HCLBank.banking.entity.Role;
+import com.HCLBank.banking.repository.PayeeRow;
+import com.HCLBank.banking.repository.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory prefix index over payees for the Send Money typeahead. Every UPI id, full name and
+ * name word is a sorted key, so a prefix query is a range scan that stops after the first k
+ * distinct payees. Loaded in one query once the application is up, and updated per user when
+ * a customer registers or their KYC status changes.
+ */
+@Component
+public class PayeeIndex {
+
+    // Separates a term from the user id in a key, and sorts before every character of a term
+    private static final char SEPARATOR = '\u0000';
+
+    private final UserRepository userRepository;
+
+    private final ConcurrentSkipListMap<String, Payee> terms = new ConcurrentSkipListMap<>();
+    private final Map<Long, Payee> byUser = new ConcurrentHashMap<>();
+
+    public PayeeIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (PayeeRow row : userRepository.findPayees(Role.CUSTOMER)) {
+            put(row);
+        }
+    }
+
+    /**
+     * Up to limit payees whose UPI id, name or a word of their name starts with the query,
+     * ignoring case. A blank query returns the first payees in index order.
+     */
+    public List<UserSearchResponseDTO> search(String query, int limit) {
+        String prefix = query == null ? "" : normalize(query);
+        NavigableMap<String, Payee> range = prefix.isEmpty()
+                ? terms
+                : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        Set<Payee> matches = new LinkedHashSet<>();
+        for (Payee payee : range.values()) {
+            if (matches.size() >= limit) {
+                break;
+            }
+            matches.add(payee);
+        }
+        List<UserSearchResponseDTO> results = new ArrayList<>(matches.size());
+        for (Payee payee : matches) {
+            results.add(payee.toSearchResult());
+        }
+        return results;
+    }
+
+    public List<UserSearchResponseDTO> all() {
+        List<UserSearchResponseDTO> results = new ArrayList<>(byUser.size());
+        for (Payee payee : byUser.values()) {
+            results.add(payee.toSearchResult());
+        }
+        return results;
+    }
+
+    // Re-reads the user once the surrounding transaction commits, or right away when there is none
+    public void refresh(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    reload(userId);
+                }
+            });
+        } else {
+            reload(userId);
+        }
+    }
+
+    public int size() {
+        return byUser.size();
+    }
+
+    private void reload(Long userId) {
+        PayeeRow row = userRepository.findPayee(userId, Role.CUSTOMER).orElse(null);
+        if (row == null) {
+            remove(userId);
+        } else {
+            put(row);
+        }
+    }
+
+    private synchronized void put(PayeeRow row) {
+        remove(row.getUserId());
+        Payee payee = new Payee(row.getUserId(), row.getUpiId(), row.getName(), row.getAccountId());
+        for (String term : payee.terms()) {
+            terms.put(term + SEPARATOR + payee.userId, payee);
+        }
+        byUser.put(payee.userId, payee);
+    }
+
+    private synchronized void remove(Long userId) {
+        Payee previous = byUser.remove(userId);
+        if (previous != null) {
+            for (String term : previous.terms()) {
+                terms.remove(term + SEPARATOR + userId);
+            }
+        }
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Payee(Long userId, String upiId, String name, Long accountId) {
+
+        private Set<String> terms() {
+            Set<String> terms = new LinkedHashSet<>();
+            terms.add(normalize(upiId));
+            if (name != null && !name.isBlank()) {
+                String fullName = normalize(name);
+                terms.add(fullName);
+                for (String word : fullName.split("\\s+")) {
+                    terms.add(word);
+                }
+            }
+            return terms;
+        }
+
+        private UserSearchResponseDTO toSearchResult() {
+            return UserSearchResponseDTO.builder()
+                    .name(name)
+                    .upiId(upiId)
+                    .bankName("HCL Bank")
+                    .accountId(accountId)
+                    .build();
+        }
+    }
+}
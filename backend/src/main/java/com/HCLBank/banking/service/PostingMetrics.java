@@ -0,0 +1,52 @@
+package com.HCLBank.banking.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class PostingMetrics {
+
+    private final LongAdder lockAcquisitions = new LongAdder();
+    private final LongAdder lockWaitNanos = new LongAdder();
+    private final LongAccumulator maxLockWaitNanos = new LongAccumulator(Math::max, 0);
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder optimisticConflicts = new LongAdder();
+    private final LongAdder retriesExhausted = new LongAdder();
+
+    public void recordLockWait(long nanos) {
+        lockAcquisitions.increment();
+        lockWaitNanos.add(nanos);
+        maxLockWaitNanos.accumulate(nanos);
+    }
+
+    public void recordRetry() {
+        retries.increment();
+    }
+
+    public void recordOptimisticConflict() {
+        optimisticConflicts.increment();
+    }
+
+    public void recordRetriesExhausted() {
+        retriesExhausted.increment();
+    }
+
+    public Map<String, Object> snapshot() {
+        long acquisitions = lockAcquisitions.sum();
+        long waitNanos = lockWaitNanos.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("lockAcquisitions", acquisitions);
+        stats.put("lockWaitTotalMs", TimeUnit.NANOSECONDS.toMillis(waitNanos));
+        stats.put("lockWaitAvgMicros", acquisitions == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(waitNanos / acquisitions));
+        stats.put("lockWaitMaxMs", TimeUnit.NANOSECONDS.toMillis(maxLockWaitNanos.get()));
+        stats.put("retries", retries.sum());
+        stats.put("optimisticConflicts", optimisticConflicts.sum());
+        stats.put("retriesExhausted", retriesExhausted.sum());
+        return stats;
+    }
+}
@@ -0,0 +1,20 @@
+package com.HCLBank.banking.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Applies balance changes to accounts. Implementations are selected with
+ * {@code banking.posting.mode} and always run inside the caller's transaction.
+ */
+public interface PostingStrategy {
+
+    TransferBalances transfer(Long sourceAccountId, Long targetAccountId, BigDecimal amount);
+
+    BigDecimal credit(Long accountId, BigDecimal amount);
+
+    BigDecimal debit(Long accountId, BigDecimal amount);
+
+    // Balances of both accounts once the transfer is applied
+    record TransferBalances(BigDecimal source, BigDecimal target) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.HCLBank.banking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work in its own transaction and re-runs it when the database reports a
+ * transient concurrency failure (deadlock victim, lock wait timeout, optimistic conflict).
+ * Backoff doubles per attempt up to a cap, with jitter so colliding callers spread out.
+ */
+@Component
+public class TransactionRetryExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final PostingMetrics postingMetrics;
+
+    @Value("${banking.posting.retry.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${banking.posting.retry.initial-backoff-ms:10}")
+    private long initialBackoffMs;
+
+    @Value("${banking.posting.retry.max-backoff-ms:200}")
+    private long maxBackoffMs;
+
+    public TransactionRetryExecutor(PlatformTransactionManager transactionManager,
+                                    PostingMetrics postingMetrics) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.postingMetrics = postingMetrics;
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        // An outer transaction is already doomed once it fails, so only the outermost caller can retry
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+
+        long backoffMs = initialBackoffMs;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (ConcurrencyFailureException ex) {
+                if (ex instanceof OptimisticLockingFailureException) {
+                    postingMetrics.recordOptimisticConflict();
+                }
+                if (attempt >= maxAttempts) {
+                    postingMetrics.recordRetriesExhausted();
+                    throw ex;
+                }
+                postingMetrics.recordRetry();
+                sleep(ThreadLocalRandom.current().nextLong(backoffMs / 2, backoffMs + 1));
+                backoffMs = Math.min(backoffMs * 2, maxBackoffMs);
+            }
+        }
+    }
+
+    public void executeWithoutResult(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", ex);
+        }
+    }
+}
@@ -1,12 +1,26 @@
 package com.HCLBank.banking.service;
 
-import com.HCLBank.banking.dto.TransactionHistoryDTO;
+import com.HCLBank.banking.dto.BalanceAtDTO;
+import com.HCLBank.banking.dto.BatchTransferResponseDTO;
+import com.HCLBank.banking.dto.TransactionHistoryPageDTO;
+import com.HCLBank.banking.dto.TransferRequestDTO;
+import com.HCLBank.banking.dto.UpiPaymentRequestDTO;
+import com.HCLBank.banking.dto.UpiPaymentResponseDTO;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface TransactionService {
 
     void transfer(Long sourceAccountId, Long targetAccountId, BigDecimal amount);
-    List<TransactionHistoryDTO> getHistory(Long accountId);
+    UpiPaymentResponseDTO payUpi(UpiPaymentRequestDTO request);
+    BatchTransferResponseDTO transferBatch(List<TransferRequestDTO> requests);
+    TransactionHistoryPageDTO getHistory(Long accountId, String cursor, Integer limit,
+                                         LocalDate from, LocalDate to, String type);
+    BalanceAtDTO getBalanceAt(Long accountId, LocalDateTime at);
+    StreamingResponseBody exportHistory(Long accountId, LocalDate from, LocalDate to, String type, String format);
 }
 
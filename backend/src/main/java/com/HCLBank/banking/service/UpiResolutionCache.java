@@ -0,0 +1,110 @@
+package com.HCLBank.banking.service;
+
+import com.HCLBank.banking.dto.UserSearchResponseDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Remembers what a UPI id resolved to for the Send Money payee lookup. Found payees are kept
+ * for a few minutes, unknown ids for a few seconds so typos and scanners do not reach the
+ * database on every keystroke. The map is a bounded LRU; entries are dropped when a user
+ * registers under the id or the account behind it changes.
+ */
+@Component
+public class UpiResolutionCache {
+
+    private final long ttlNanos;
+    private final long negativeTtlNanos;
+    private final Map<String, Resolution> resolutions;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder negativeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public UpiResolutionCache(@Value("${banking.upi-cache.max-entries:10000}") int maxEntries,
+                              @Value("${banking.upi-cache.ttl-ms:300000}") long ttlMs,
+                              @Value("${banking.upi-cache.negative-ttl-ms:30000}") long negativeTtlMs) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMs);
+        this.resolutions = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Resolution> eldest) {
+                boolean evict = size() > maxEntries;
+                if (evict) {
+                    evictions.increment();
+                }
+                return evict;
+            }
+        });
+    }
+
+    /**
+     * The payee for the UPI id, loading it on a miss or after expiry. An empty result is
+     * cached as well, for the shorter negative TTL.
+     */
+    public Optional<UserSearchResponseDTO> resolve(String upiId, Function<String, Optional<UserSearchResponseDTO>> loader) {
+        String key = normalize(upiId);
+        long now = System.nanoTime();
+        Resolution cached = resolutions.get(key);
+        if (cached != null && now - cached.expiresAt < 0) {
+            if (cached.payee == null) {
+                negativeHits.increment();
+            } else {
+                hits.increment();
+            }
+            return Optional.ofNullable(cached.payee);
+        }
+        misses.increment();
+        Optional<UserSearchResponseDTO> payee = loader.apply(key);
+        resolutions.put(key, new Resolution(payee.orElse(null), now + (payee.isPresent() ? ttlNanos : negativeTtlNanos)));
+        return payee;
+    }
+
+    // Drops the id now and again once the surrounding transaction commits, so a lookup in between cannot re-cache it
+    public void invalidate(String upiId) {
+        String key = normalize(upiId);
+        resolutions.remove(key);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    resolutions.remove(key);
+                }
+            });
+        }
+    }
+
+    public void invalidateAll() {
+        resolutions.clear();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hits.sum());
+        stats.put("negativeHits", negativeHits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("entries", resolutions.size());
+        return stats;
+    }
+
+    private static String normalize(String upiId) {
+        return upiId == null ? "" : upiId.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // A null payee records that the id did not resolve
+    private record Resolution(UserSearchResponseDTO payee, long expiresAt) {
+    }
+}
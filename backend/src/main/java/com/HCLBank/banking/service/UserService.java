@@ -1,40 +1,49 @@
 package com.HCLBank.banking.service;
 
 import com.HCLBank.banking.dto.UserSearchResponseDTO;
-import com.HCLBank.banking.entity.Role;
 import com.HCLBank.banking.entity.User;
 import com.HCLBank.banking.exception.ResourceNotFoundException;
+import com.HCLBank.banking.repository.PayeeRow;
 import com.HCLBank.banking.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
-import java.util.stream.Collectors;
-
 @Service
 public class UserService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PayeeIndex payeeIndex;
+
+    @Autowired
+    private UpiResolutionCache upiResolutionCache;
+
+    @Value("${banking.payee-search.default-limit:10}")
+    private int defaultSearchLimit;
+
+    @Value("${banking.payee-search.max-limit:20}")
+    private int maxSearchLimit;
+
     public List<UserSearchResponseDTO> getAllUsersForSearch() {
-        return userRepository.findAll().stream()
-                .filter(u -> u.getRole() == Role.CUSTOMER)
-                .map(this::convertToSearchDTO)
-                .collect(Collectors.toList());
+        return payeeIndex.all();
     }
 
-    private UserSearchResponseDTO convertToSearchDTO(User user) {
-        String name = (user.getCustomer() != null) ? user.getCustomer().getCustomerName() : user.getUserName();
-        Long accountId = (user.getCustomer() != null && !user.getCustomer().getAccounts().isEmpty()) ? 
-            user.getCustomer().getAccounts().get(0).getAccountId() : null;
+    public List<UserSearchResponseDTO> searchPayees(String query, Integer limit) {
+        int size = limit == null ? defaultSearchLimit : Math.min(Math.max(limit, 1), maxSearchLimit);
+        return payeeIndex.search(query, size);
+    }
 
+    private UserSearchResponseDTO toSearchDTO(PayeeRow payee) {
         return UserSearchResponseDTO.builder()
-                .name(name)
-                .upiId(user.getUpiId())
+                .name(payee.getName())
+                .upiId(payee.getUpiId())
                 .bankName("HCL Bank")
-                .accountId(accountId)
+                .accountId(payee.getAccountId())
                 .build();
     }
 
@@ -47,13 +56,13 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         user.setKycCompleted(status);
         userRepository.save(user);
+        payeeIndex.refresh(user.getUserId());
     }
 
     public UserSearchResponseDTO searchByUpiId(String upiId) {
-        User user = userRepository.findByUpiId(upiId)
+        // Name and first account in one statement, answered from memory for repeat lookups
+        return upiResolutionCache.resolve(upiId, key -> userRepository.findPayeeByUpiId(key).map(this::toSearchDTO))
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with UPI ID: " + upiId));
-
-        return convertToSearchDTO(user);
     }
 
     public void submitKyc(String email) {
@@ -61,5 +70,6 @@ public class UserService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
         user.setKycCompleted(true);
         userRepository.save(user);
+        payeeIndex.refresh(user.getUserId());
     }
 }
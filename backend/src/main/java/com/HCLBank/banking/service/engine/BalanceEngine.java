@@ -0,0 +1,237 @@
+package com.HCLBank.banking.service.engine;
+
+import com.HCLBank.banking.entity.EngineCheckpoint;
+import com.HCLBank.banking.repository.EngineCheckpointRepository;
+import com.HCLBank.banking.repository.LedgerJdbcRepository;
+import com.HCLBank.banking.service.HistoryCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory posting engine for peak load, enabled with {@code banking.engine.enabled=true}.
+ * Accounts are hashed onto partitions, each with a single writer thread, so balance checks
+ * never contend on database row locks. A posting is acknowledged once it is fsynced to the
+ * partition journal; the account and transactions tables are updated shortly after in
+ * batches, and any journaled posting not yet in the database is replayed on startup.
+ * While enabled, every balance change must go through the engine.
+ */
+@Component
+@ConditionalOnProperty(name = "banking.engine.enabled", havingValue = "true")
+public class BalanceEngine {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LedgerJdbcRepository ledgerJdbcRepository;
+    private final EngineCheckpointRepository checkpointRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final HistoryCache historyCache;
+
+    @Value("${banking.engine.partitions:4}")
+    private int partitionCount;
+
+    @Value("${banking.engine.queue-capacity:65536}")
+    private int queueCapacity;
+
+    @Value("${banking.engine.max-batch:1024}")
+    private int maxBatch;
+
+    @Value("${banking.engine.max-cached-accounts:100000}")
+    private int maxCachedAccounts;
+
+    @Value("${banking.engine.journal-dir:engine-journal}")
+    private String journalDir;
+
+    @Value("${banking.engine.journal-segment-bytes:67108864}")
+    private long journalSegmentBytes;
+
+    @Value("${banking.engine.write-behind-batch:2000}")
+    private int writeBehindBatch;
+
+    @Value("${banking.engine.write-behind-interval-ms:50}")
+    private long writeBehindIntervalMs;
+
+    @Value("${banking.engine.submit-timeout-ms:5000}")
+    private long submitTimeoutMs;
+
+    private EnginePartition[] partitions;
+    private EngineWriteBehind writeBehind;
+    // Accounts are never deleted, so a positive existence check can be remembered
+    private final Set<Long> knownAccounts = ConcurrentHashMap.newKeySet();
+    private final LongAdder postings = new LongAdder();
+
+    public BalanceEngine(JdbcTemplate jdbcTemplate,
+                         LedgerJdbcRepository ledgerJdbcRepository,
+                         EngineCheckpointRepository checkpointRepository,
+                         PlatformTransactionManager transactionManager,
+                         HistoryCache historyCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ledgerJdbcRepository = ledgerJdbcRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.historyCache = historyCache;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        AtomicLong[] durableSequences = new AtomicLong[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            int partition = i;
+            EngineCheckpoint checkpoint = checkpointRepository.findById(partition)
+                    .orElseGet(() -> checkpointRepository.save(new EngineCheckpoint(partition, 0L)));
+            durableSequences[i] = new AtomicLong(checkpoint.getLastSequence());
+        }
+        writeBehind = new EngineWriteBehind(jdbcTemplate, ledgerJdbcRepository, transactionTemplate, historyCache,
+                writeBehindBatch, writeBehindIntervalMs, durableSequences);
+
+        partitions = new EnginePartition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            EngineJournal journal = new EngineJournal(Path.of(journalDir), i, journalSegmentBytes);
+            long lastSequence = replay(journal, durableSequences[i]);
+            journal.startSegment(lastSequence + 1);
+            journal.deleteSegmentsUpTo(lastSequence);
+            partitions[i] = new EnginePartition(i, queueCapacity, maxBatch, maxCachedAccounts, journal,
+                    lastSequence + 1, this::loadBalance, this::partitionFor, writeBehind, durableSequences[i]);
+        }
+
+        writeBehind.start();
+        for (EnginePartition partition : partitions) {
+            partition.start();
+        }
+    }
+
+    // Writes journaled postings the database has not seen yet, before any new posting is accepted
+    private long replay(EngineJournal journal, AtomicLong durableSequence) throws IOException {
+        long lastSequence = durableSequence.get();
+        List<EnginePosting> missing = journal.readAll().stream()
+                .filter(posting -> posting.sequence > durableSequence.get())
+                .sorted((a, b) -> Long.compare(a.sequence, b.sequence))
+                .toList();
+        for (int from = 0; from < missing.size(); from += writeBehindBatch) {
+            writeBehind.write(missing.subList(from, Math.min(from + writeBehindBatch, missing.size())));
+        }
+        if (!missing.isEmpty()) {
+            lastSequence = missing.get(missing.size() - 1).sequence;
+        }
+        return lastSequence;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        for (EnginePartition partition : partitions) {
+            partition.closeIntake();
+        }
+        // Credit legs hop between partitions, so wait for two consecutive quiet rounds
+        int quietRounds = 0;
+        while (quietRounds < 2) {
+            boolean idle = true;
+            for (EnginePartition partition : partitions) {
+                idle &= partition.isIdle();
+            }
+            quietRounds = idle ? quietRounds + 1 : 0;
+            Thread.sleep(10);
+        }
+        for (EnginePartition partition : partitions) {
+            partition.stop();
+            partition.close();
+        }
+        writeBehind.stop();
+    }
+
+    public BigDecimal transfer(Long sourceAccountId, Long targetAccountId, BigDecimal amount) {
+        if (!accountExists(targetAccountId)) {
+            throw new RuntimeException("Target account not found");
+        }
+        return post(EnginePosting.Type.TRANSFER, sourceAccountId, targetAccountId, amount);
+    }
+
+    public BigDecimal credit(Long accountId, BigDecimal amount) {
+        return post(EnginePosting.Type.CREDIT, null, accountId, amount);
+    }
+
+    public BigDecimal debit(Long accountId, BigDecimal amount) {
+        return post(EnginePosting.Type.DEBIT, accountId, null, amount);
+    }
+
+    public Optional<BigDecimal> balanceOf(Long accountId) {
+        return await(partitionFor(accountId).balanceOf(accountId, submitTimeoutMs));
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("partitions", partitionCount);
+        stats.put("postings", postings.sum());
+        stats.put("writeBehindBacklog", writeBehind.backlog());
+        return stats;
+    }
+
+    private BigDecimal post(EnginePosting.Type type, Long sourceAccountId, Long targetAccountId, BigDecimal amount) {
+        Long owner = sourceAccountId != null ? sourceAccountId : targetAccountId;
+        BigDecimal balanceAfter = await(partitionFor(owner)
+                .post(type, sourceAccountId, targetAccountId, amount, submitTimeoutMs));
+        postings.increment();
+        return balanceAfter;
+    }
+
+    private EnginePartition partitionFor(Long accountId) {
+        return partitions[Math.floorMod(Long.hashCode(accountId), partitions.length)];
+    }
+
+    private Optional<BigDecimal> loadBalance(Long accountId) {
+        List<BigDecimal> balances = jdbcTemplate.queryForList(
+                "SELECT COALESCE(balance, 0) FROM account WHERE account_id = ?", BigDecimal.class, accountId);
+        if (!balances.isEmpty()) {
+            knownAccounts.add(accountId);
+        }
+        return balances.stream().findFirst();
+    }
+
+    private boolean accountExists(Long accountId) {
+        if (knownAccounts.contains(accountId)) {
+            return true;
+        }
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account WHERE account_id = ?", Integer.class, accountId);
+        if (count != null && count > 0) {
+            knownAccounts.add(accountId);
+            return true;
+        }
+        return false;
+    }
+
+    private <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.get(submitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (TimeoutException ex) {
+            throw new IllegalStateException("Balance engine did not confirm in time, check the balance before retrying", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for balance engine", ex);
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.HCLBank.banking.service.engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Append-only journal of one partition, split into segment files named after the first
+ * sequence they hold. Appends are buffered and made durable together by {@link #flush()},
+ * so one fsync covers a whole batch of postings. Only the end of the newest segment can be
+ * torn by a crash; it is cut back to the last whole posting when the journal is opened.
+ */
+final class EngineJournal implements Closeable {
+
+    private final Path directory;
+    private final int partition;
+    private final long segmentBytes;
+    private final StringBuilder buffer = new StringBuilder();
+
+    // first sequence of each segment -> file, oldest first
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private FileChannel channel;
+
+    EngineJournal(Path directory, int partition, long segmentBytes) throws IOException {
+        this.directory = directory;
+        this.partition = partition;
+        this.segmentBytes = segmentBytes;
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "partition-" + partition + "-*.journal")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                long firstSequence = Long.parseLong(name.substring(name.lastIndexOf('-') + 1, name.length() - ".journal".length()));
+                segments.put(firstSequence, file);
+            }
+        }
+        if (!segments.isEmpty()) {
+            recoverTail(segments.lastEntry().getValue());
+        }
+    }
+
+    /**
+     * Every posting in the journal, oldest first. Any line that does not parse fails the read:
+     * the torn tail was already cut off on open, so a bad line here means the journal is
+     * damaged and replaying around it would lose acknowledged postings.
+     */
+    List<EnginePosting> readAll() throws IOException {
+        List<EnginePosting> postings = new ArrayList<>();
+        for (Path file : segments.values()) {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            for (int i = 0; i < lines.size(); i++) {
+                if (lines.get(i).isBlank()) {
+                    continue;
+                }
+                try {
+                    postings.add(EnginePosting.fromJournalLine(partition, lines.get(i)));
+                } catch (RuntimeException ex) {
+                    throw new IOException("Corrupt posting at " + file + " line " + (i + 1), ex);
+                }
+            }
+        }
+        return postings;
+    }
+
+    void startSegment(long firstSequence) throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+        Path file = directory.resolve("partition-" + partition + "-" + firstSequence + ".journal");
+        // Not APPEND: flush() needs its own position to truncate back to after a failed write
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.position(lastNewline(channel));
+        channel.truncate(channel.position());
+        segments.put(firstSequence, file);
+    }
+
+    void append(EnginePosting posting) {
+        buffer.append(posting.toJournalLine()).append('\n');
+    }
+
+    boolean hasPendingWrites() {
+        return buffer.length() > 0;
+    }
+
+    /**
+     * Writes and fsyncs the buffered postings. If that fails, the segment is cut back to where
+     * it was, so postings the caller reports as failed cannot reappear on replay.
+     */
+    void flush() throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toString().getBytes(StandardCharsets.UTF_8));
+        long start = channel.position();
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        } catch (IOException ex) {
+            try {
+                channel.truncate(start);
+                channel.position(start);
+                channel.force(false);
+            } catch (IOException truncateFailure) {
+                ex.addSuppressed(truncateFailure);
+            }
+            throw ex;
+        }
+        buffer.setLength(0);
+    }
+
+    void discardPendingWrites() {
+        buffer.setLength(0);
+    }
+
+    boolean shouldRoll() throws IOException {
+        return channel.size() >= segmentBytes;
+    }
+
+    // Drops segments whose every posting is at or below the durable sequence
+    void deleteSegmentsUpTo(long durableSequence) throws IOException {
+        while (segments.size() > 1) {
+            Long oldest = segments.firstKey();
+            Long next = segments.higherKey(oldest);
+            if (next - 1 > durableSequence) {
+                return;
+            }
+            Files.deleteIfExists(segments.remove(oldest));
+        }
+    }
+
+    // Cuts a segment back to its last whole line, dropping that line too if a crash left it unparseable
+    private void recoverTail(Path file) throws IOException {
+        try (FileChannel segment = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long end = lastNewline(segment);
+            if (end > 0) {
+                long lineStart = lastNewline(segment, end - 1);
+                ByteBuffer line = ByteBuffer.allocate((int) (end - 1 - lineStart));
+                readFully(segment, line, lineStart);
+                try {
+                    EnginePosting.fromJournalLine(partition, new String(line.array(), StandardCharsets.UTF_8));
+                } catch (RuntimeException ex) {
+                    end = lineStart;
+                }
+            }
+            if (end < segment.size()) {
+                segment.truncate(end);
+                segment.force(false);
+            }
+        }
+    }
+
+    private static long lastNewline(FileChannel file) throws IOException {
+        return lastNewline(file, file.size());
+    }
+
+    // Offset just past the last '\n' before limit, or 0 when there is none
+    private static long lastNewline(FileChannel file, long limit) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(8192);
+        long end = limit;
+        while (end > 0) {
+            long start = Math.max(0, end - chunk.capacity());
+            chunk.clear().limit((int) (end - start));
+            readFully(file, chunk, start);
+            for (int i = (int) (end - start) - 1; i >= 0; i--) {
+                if (chunk.get(i) == '\n') {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    private static void readFully(FileChannel file, ByteBuffer into, long position) throws IOException {
+        while (into.hasRemaining()) {
+            if (file.read(into, position + into.position()) < 0) {
+                throw new IOException("Journal segment shrank while reading");
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,326 @@
+package com.HCLBank.banking.service.engine;
+
+import com.HCLBank.banking.exception.InsufficientBalanceException;
+import com.HCLBank.banking.exception.ResourceNotFoundException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Owns the balances of every account hashed to it. A single writer thread drains the command
+ * queue in batches, applies each command to its cache, journals the result and fsyncs once per
+ * batch before acknowledging anything. No other thread touches the cache, so nothing is locked.
+ */
+final class EnginePartition {
+
+    static final class AccountSlot {
+        BigDecimal balance;
+        // Postings applied to this slot that the write-behind has not committed yet; the slot
+        // must stay cached until this drops to zero or a reload would miss them
+        final AtomicInteger pendingWrites = new AtomicInteger();
+
+        AccountSlot(BigDecimal balance) {
+            this.balance = balance;
+        }
+    }
+
+    private record PostCommand(EnginePosting.Type type, Long sourceAccountId, Long targetAccountId,
+                               BigDecimal amount, CompletableFuture<BigDecimal> result) {
+    }
+
+    private record BalanceQuery(Long accountId, CompletableFuture<Optional<BigDecimal>> result) {
+    }
+
+    private record Applied(EnginePosting posting, BigDecimal balanceAfter, CompletableFuture<BigDecimal> result) {
+    }
+
+    private final int index;
+    private final BlockingQueue<Object> queue;
+    // Credit legs forwarded by other partitions; unbounded so two writers can never block on each other
+    private final ConcurrentLinkedQueue<EnginePosting> creditLegs = new ConcurrentLinkedQueue<>();
+    private final int maxBatch;
+    private final EngineJournal journal;
+    private final Function<Long, Optional<BigDecimal>> balanceLoader;
+    private final Function<Long, EnginePartition> partitionFor;
+    private final EngineWriteBehind writeBehind;
+    private final AtomicLong durableSequence;
+    private final Map<Long, AccountSlot> cache;
+    private final ArrayDeque<EnginePosting> deferredLegs = new ArrayDeque<>();
+    private final Thread writer;
+
+    private long nextSequence;
+    private volatile boolean accepting = true;
+    private volatile boolean running = true;
+    private volatile boolean busy;
+    private volatile boolean failed;
+
+    EnginePartition(int index, int queueCapacity, int maxBatch, int maxCachedAccounts, EngineJournal journal,
+                    long nextSequence, Function<Long, Optional<BigDecimal>> balanceLoader,
+                    Function<Long, EnginePartition> partitionFor, EngineWriteBehind writeBehind,
+                    AtomicLong durableSequence) {
+        this.index = index;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.maxBatch = maxBatch;
+        this.journal = journal;
+        this.nextSequence = nextSequence;
+        this.balanceLoader = balanceLoader;
+        this.partitionFor = partitionFor;
+        this.writeBehind = writeBehind;
+        this.durableSequence = durableSequence;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, AccountSlot> eldest) {
+                return size() > maxCachedAccounts && eldest.getValue().pendingWrites.get() == 0;
+            }
+        };
+        this.writer = new Thread(this::run, "balance-engine-" + index);
+    }
+
+    void start() {
+        writer.start();
+    }
+
+    void closeIntake() {
+        accepting = false;
+    }
+
+    boolean isIdle() {
+        return queue.isEmpty() && creditLegs.isEmpty() && !busy;
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join();
+    }
+
+    CompletableFuture<BigDecimal> post(EnginePosting.Type type, Long sourceAccountId, Long targetAccountId,
+                                       BigDecimal amount, long timeoutMs) {
+        CompletableFuture<BigDecimal> result = new CompletableFuture<>();
+        offer(new PostCommand(type, sourceAccountId, targetAccountId, amount, result), timeoutMs);
+        return result;
+    }
+
+    CompletableFuture<Optional<BigDecimal>> balanceOf(Long accountId, long timeoutMs) {
+        CompletableFuture<Optional<BigDecimal>> result = new CompletableFuture<>();
+        offer(new BalanceQuery(accountId, result), timeoutMs);
+        return result;
+    }
+
+    private void forward(EnginePosting posting) {
+        creditLegs.add(posting);
+        // Wake the writer if it is parked on an empty queue; a full queue means it is busy anyway
+        queue.offer(Boolean.TRUE);
+    }
+
+    private void offer(Object command, long timeoutMs) {
+        if (failed) {
+            throw new IllegalStateException("Balance engine journal is unavailable");
+        }
+        if (!accepting) {
+            throw new IllegalStateException("Balance engine is shutting down");
+        }
+        try {
+            if (!queue.offer(command, timeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Balance engine is overloaded, try again later");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while submitting posting", ex);
+        }
+    }
+
+    private void run() {
+        List<Object> batch = new ArrayList<>(maxBatch);
+        List<Applied> applied = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty() || !creditLegs.isEmpty()) {
+            try {
+                Object first = queue.poll(100, TimeUnit.MILLISECONDS);
+                busy = true;
+                applyCreditLegs();
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, maxBatch - 1);
+                for (Object command : batch) {
+                    handle(command, applied);
+                }
+                commit(applied);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                busy = false;
+                batch.clear();
+                applied.clear();
+            }
+        }
+    }
+
+    private void handle(Object command, List<Applied> applied) {
+        if (command instanceof PostCommand post) {
+            if (failed) {
+                post.result().completeExceptionally(new IllegalStateException("Balance engine journal is unavailable"));
+                return;
+            }
+            try {
+                applied.add(apply(post));
+            } catch (RuntimeException ex) {
+                post.result().completeExceptionally(ex);
+            }
+        } else if (command instanceof BalanceQuery query) {
+            try {
+                query.result().complete(Optional.ofNullable(slot(query.accountId())).map(s -> s.balance));
+            } catch (RuntimeException ex) {
+                query.result().completeExceptionally(ex);
+            }
+        }
+    }
+
+    private Applied apply(PostCommand post) {
+        EnginePosting posting = new EnginePosting(index, nextSequence, post.type(), post.sourceAccountId(),
+                post.targetAccountId(), post.amount(), LocalDateTime.now());
+        BigDecimal balanceAfter;
+        if (post.type() == EnginePosting.Type.CREDIT) {
+            AccountSlot target = requireSlot(post.targetAccountId(), () -> new ResourceNotFoundException("Account not found"));
+            target.balance = target.balance.add(post.amount());
+            balanceAfter = target.balance;
+            pin(posting, null, target);
+        } else {
+            boolean transfer = post.type() == EnginePosting.Type.TRANSFER;
+            AccountSlot source = requireSlot(post.sourceAccountId(), transfer
+                    ? () -> new RuntimeException("Source account not found")
+                    : () -> new ResourceNotFoundException("Account not found"));
+            if (source.balance.compareTo(post.amount()) < 0) {
+                throw new InsufficientBalanceException(transfer ? "Insufficient balance in source account" : "Insufficient balance");
+            }
+            source.balance = source.balance.subtract(post.amount());
+            balanceAfter = source.balance;
+            pin(posting, source, null);
+        }
+        nextSequence++;
+        journal.append(posting);
+        return new Applied(posting, balanceAfter, post.result());
+    }
+
+    private void commit(List<Applied> applied) {
+        if (!journal.hasPendingWrites()) {
+            return;
+        }
+        try {
+            journal.flush();
+        } catch (IOException ex) {
+            // The cache now runs ahead of the journal, so stop taking postings until a restart replays it
+            failed = true;
+            journal.discardPendingWrites();
+            for (Applied done : applied) {
+                done.result().completeExceptionally(new IllegalStateException("Could not journal posting", ex));
+            }
+            return;
+        }
+
+        for (Applied done : applied) {
+            EnginePosting posting = done.posting();
+            if (posting.type == EnginePosting.Type.TRANSFER) {
+                EnginePartition target = partitionFor.apply(posting.targetAccountId);
+                if (target == this) {
+                    deferredLegs.add(posting);
+                } else {
+                    target.forward(posting);
+                }
+            } else {
+                writeBehind.submit(posting);
+            }
+            done.result().complete(done.balanceAfter());
+        }
+        applyCreditLegs();
+        rollSegmentIfNeeded();
+    }
+
+    private void applyCreditLegs() {
+        EnginePosting leg;
+        while ((leg = creditLegs.poll()) != null) {
+            deferredLegs.add(leg);
+        }
+        while (!deferredLegs.isEmpty()) {
+            EnginePosting posting = deferredLegs.peek();
+            try {
+                AccountSlot target = slot(posting.targetAccountId);
+                if (target == null) {
+                    // Existence is checked before the debit, so this only happens if the account was deleted
+                    throw new IllegalStateException("Target account " + posting.targetAccountId + " disappeared");
+                }
+                target.balance = target.balance.add(posting.amount);
+                pin(posting, posting.sourceSlot, target);
+            } catch (RuntimeException ex) {
+                // Typically the database is unreachable for a cold load; keep the leg and retry next round
+                return;
+            }
+            deferredLegs.poll();
+            writeBehind.submit(posting);
+        }
+    }
+
+    private void pin(EnginePosting posting, AccountSlot source, AccountSlot target) {
+        if (source != null && posting.sourceSlot == null) {
+            posting.sourceSlot = source;
+            source.pendingWrites.incrementAndGet();
+        }
+        if (target != null && posting.targetSlot == null) {
+            posting.targetSlot = target;
+            target.pendingWrites.incrementAndGet();
+        }
+    }
+
+    private AccountSlot requireSlot(Long accountId, Supplier<RuntimeException> notFound) {
+        AccountSlot slot = slot(accountId);
+        if (slot == null) {
+            throw notFound.get();
+        }
+        return slot;
+    }
+
+    private AccountSlot slot(Long accountId) {
+        AccountSlot slot = cache.get(accountId);
+        if (slot == null) {
+            Optional<BigDecimal> balance = balanceLoader.apply(accountId);
+            if (balance.isEmpty()) {
+                return null;
+            }
+            slot = new AccountSlot(balance.get());
+            cache.put(accountId, slot);
+        }
+        return slot;
+    }
+
+    private void rollSegmentIfNeeded() {
+        try {
+            if (journal.shouldRoll()) {
+                journal.startSegment(nextSequence);
+            }
+            journal.deleteSegmentsUpTo(durableSequence.get());
+        } catch (IOException ex) {
+            // Keep appending to the current segment; housekeeping is retried after the next batch
+        }
+    }
+
+    void close() throws IOException {
+        journal.close();
+    }
+}
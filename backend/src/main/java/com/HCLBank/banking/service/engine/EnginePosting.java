@@ -0,0 +1,62 @@
+package com.HCLBank.banking.service.engine;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One journaled balance change. Transfers carry both legs; the source partition journals
+ * them and the target partition applies the credit leg to its own cache.
+ */
+final class EnginePosting {
+
+    enum Type { CREDIT, DEBIT, TRANSFER }
+
+    final int partition;
+    final long sequence;
+    final Type type;
+    final Long sourceAccountId;
+    final Long targetAccountId;
+    final BigDecimal amount;
+    final LocalDateTime postedAt;
+
+    // Cached accounts pinned in memory until this posting is written through to the database
+    EnginePartition.AccountSlot sourceSlot;
+    EnginePartition.AccountSlot targetSlot;
+
+    EnginePosting(int partition, long sequence, Type type, Long sourceAccountId, Long targetAccountId,
+                  BigDecimal amount, LocalDateTime postedAt) {
+        this.partition = partition;
+        this.sequence = sequence;
+        this.type = type;
+        this.sourceAccountId = sourceAccountId;
+        this.targetAccountId = targetAccountId;
+        this.amount = amount;
+        this.postedAt = postedAt;
+    }
+
+    String toJournalLine() {
+        return sequence + "," + type + "," + (sourceAccountId == null ? "" : sourceAccountId) + ","
+                + (targetAccountId == null ? "" : targetAccountId) + "," + amount.toPlainString() + ","
+                + postedAt;
+    }
+
+    static EnginePosting fromJournalLine(int partition, String line) {
+        String[] parts = line.split(",", -1);
+        return new EnginePosting(partition,
+                Long.parseLong(parts[0]),
+                Type.valueOf(parts[1]),
+                parts[2].isEmpty() ? null : Long.valueOf(parts[2]),
+                parts[3].isEmpty() ? null : Long.valueOf(parts[3]),
+                new BigDecimal(parts[4]),
+                LocalDateTime.parse(parts[5]));
+    }
+
+    void releaseSlots() {
+        if (sourceSlot != null) {
+            sourceSlot.pendingWrites.decrementAndGet();
+        }
+        if (targetSlot != null) {
+            targetSlot.pendingWrites.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.HCLBank.banking.service.engine;
+
+import com.HCLBank.banking.entity.Account;
+import com.HCLBank.banking.entity.Transaction;
+import com.HCLBank.banking.repository.LedgerJdbcRepository;
+import com.HCLBank.banking.service.HistoryCache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Copies journaled postings into the account and transactions tables. Postings of one
+ * partition are committed strictly in sequence order together with that partition's
+ * checkpoint, so after a crash replaying the journal past the checkpoint is exactly-once.
+ */
+final class EngineWriteBehind {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LedgerJdbcRepository ledgerJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final HistoryCache historyCache;
+    private final int batchSize;
+    private final long intervalMs;
+    private final AtomicLong[] durableSequences;
+
+    private final LinkedBlockingQueue<EnginePosting> queue = new LinkedBlockingQueue<>();
+    // Postings that arrived ahead of an earlier sequence of the same partition
+    private final List<TreeMap<Long, EnginePosting>> waiting = new ArrayList<>();
+    private final long[] nextSequences;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    EngineWriteBehind(JdbcTemplate jdbcTemplate, LedgerJdbcRepository ledgerJdbcRepository,
+                      TransactionTemplate transactionTemplate, HistoryCache historyCache, int batchSize, long intervalMs,
+                      AtomicLong[] durableSequences) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ledgerJdbcRepository = ledgerJdbcRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.historyCache = historyCache;
+        this.batchSize = batchSize;
+        this.intervalMs = intervalMs;
+        this.durableSequences = durableSequences;
+        this.nextSequences = new long[durableSequences.length];
+        for (int i = 0; i < durableSequences.length; i++) {
+            waiting.add(new TreeMap<>());
+        }
+        this.worker = new Thread(this::run, "balance-engine-write-behind");
+    }
+
+    void start() {
+        for (int i = 0; i < nextSequences.length; i++) {
+            nextSequences[i] = durableSequences[i].get() + 1;
+        }
+        worker.start();
+    }
+
+    void stop() throws InterruptedException {
+        running = false;
+        worker.join();
+    }
+
+    void submit(EnginePosting posting) {
+        queue.add(posting);
+    }
+
+    int backlog() {
+        return queue.size() + waiting.stream().mapToInt(Map::size).sum();
+    }
+
+    private void run() {
+        List<EnginePosting> received = new ArrayList<>();
+        List<EnginePosting> ready = new ArrayList<>();
+        while (running || !queue.isEmpty() || !ready.isEmpty()) {
+            try {
+                EnginePosting first = queue.poll(intervalMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    received.add(first);
+                    queue.drainTo(received, batchSize);
+                    for (EnginePosting posting : received) {
+                        waiting.get(posting.partition).put(posting.sequence, posting);
+                    }
+                    received.clear();
+                    collectReady(ready);
+                }
+                if (ready.isEmpty()) {
+                    continue;
+                }
+                write(ready);
+                ready.forEach(EnginePosting::releaseSlots);
+                ready.clear();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                // Database unavailable: keep the batch and try again after a pause
+                sleepQuietly(Math.max(intervalMs, 500));
+            }
+        }
+    }
+
+    private void collectReady(List<EnginePosting> ready) {
+        for (int partition = 0; partition < nextSequences.length; partition++) {
+            TreeMap<Long, EnginePosting> pending = waiting.get(partition);
+            EnginePosting next;
+            while ((next = pending.remove(nextSequences[partition])) != null) {
+                ready.add(next);
+                nextSequences[partition]++;
+            }
+        }
+    }
+
+    /**
+     * Applies the postings in one database transaction: the accounts' new balances, the ledger
+     * rows with the running balance of each side, and the new checkpoint of every partition involved.
+     */
+    void write(List<EnginePosting> postings) {
+        Set<Long> accountIds = new TreeSet<>();
+        Map<Integer, Long> checkpoints = new HashMap<>();
+        for (EnginePosting posting : postings) {
+            if (posting.sourceAccountId != null) {
+                accountIds.add(posting.sourceAccountId);
+            }
+            if (posting.targetAccountId != null) {
+                accountIds.add(posting.targetAccountId);
+            }
+            checkpoints.merge(posting.partition, posting.sequence, Math::max);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            // Replays the batch over the table's balances in write order, so each row's running
+            // balance agrees with the rows before it even though transfer legs cross partitions
+            Map<Long, Account> accounts = ledgerJdbcRepository.lockAccounts(accountIds);
+            List<Transaction> ledgerRows = new ArrayList<>(postings.size());
+            for (EnginePosting posting : postings) {
+                BigDecimal sourceBalance = apply(accounts.get(posting.sourceAccountId), posting.amount.negate());
+                BigDecimal targetBalance = apply(accounts.get(posting.targetAccountId), posting.amount);
+                Transaction row = switch (posting.type) {
+                    case CREDIT -> ledgerRow("CREDIT", posting, "Self Deposit", null, posting.targetAccountId);
+                    case DEBIT -> ledgerRow("DEBIT", posting, "Self Withdrawal", posting.sourceAccountId, null);
+                    case TRANSFER -> {
+                        Transaction transfer = ledgerRow("TRANSFER", posting, null,
+                                posting.sourceAccountId, posting.targetAccountId);
+                        transfer.setTransferId(UUID.randomUUID().toString());
+                        yield transfer;
+                    }
+                };
+                row.setSourceBalanceAfter(sourceBalance);
+                row.setTargetBalanceAfter(targetBalance);
+                ledgerRows.add(row);
+            }
+            ledgerJdbcRepository.updateBalances(accounts.values());
+            ledgerJdbcRepository.insertTransactions(ledgerRows);
+            historyCache.recordPosted(ledgerRows);
+
+            List<Object[]> checkpointUpdates = new ArrayList<>(checkpoints.size());
+            checkpoints.forEach((partition, sequence) -> checkpointUpdates.add(new Object[]{sequence, partition}));
+            jdbcTemplate.batchUpdate("UPDATE engine_checkpoint SET last_sequence = ? WHERE partition_id = ?", checkpointUpdates);
+        });
+
+        checkpoints.forEach((partition, sequence) -> durableSequences[partition].set(sequence));
+    }
+
+    private BigDecimal apply(Account account, BigDecimal delta) {
+        if (account == null) {
+            return null;
+        }
+        account.setBalance(account.getBalance().add(delta));
+        return account.getBalance();
+    }
+
+    private Transaction ledgerRow(String type, EnginePosting posting, String remarks,
+                                  Long sourceAccountId, Long targetAccountId) {
+        Transaction row = new Transaction();
+        row.setTransactionType(type);
+        row.setTransactionAmount(posting.amount);
+        row.setTransactionDate(posting.postedAt);
+        row.setRemarks(remarks);
+        row.setSourceAccount(accountRef(sourceAccountId));
+        row.setTargetAccount(accountRef(targetAccountId));
+        return row;
+    }
+
+    private Account accountRef(Long accountId) {
+        if (accountId == null) {
+            return null;
+        }
+        Account account = new Account();
+        account.setAccountId(accountId);
+        return account;
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.HCLBank.banking;
+
+import com.HCLBank.banking.entity.Account;
+import com.HCLBank.banking.exception.InvalidOperationException;
+import com.HCLBank.banking.repository.AccountRepository;
+import com.HCLBank.banking.repository.IdempotencyRecordRepository;
+import com.HCLBank.banking.service.IdempotencyService;
+import com.HCLBank.banking.service.TransactionService;
+import com.HCLBank.banking.service.engine.BalanceEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+
+// A keyed transfer posted through the engine must never post again on replay, even when storing its response fails
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:idempotency;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.show-sql=false",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"banking.engine.enabled=true"
+})
+class IdempotentReplayTests {
+
+	@DynamicPropertySource
+	static void journalDir(DynamicPropertyRegistry registry) throws IOException {
+		String dir = Files.createTempDirectory("idempotency-journal").toString();
+		registry.add("banking.engine.journal-dir", () -> dir);
+	}
+
+	@Autowired
+	private IdempotencyService idempotencyService;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private BalanceEngine balanceEngine;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@SpyBean
+	private IdempotencyRecordRepository idempotencyRecordRepository;
+
+	@Test
+	void replayReturnsStoredResponseWithoutPosting() {
+		List<Account> accounts = accountRepository.findAll();
+		Long source = accounts.get(0).getAccountId();
+		Long target = accounts.get(1).getAccountId();
+		Map<String, Object> request = Map.of("source", source, "target", target, "amount", "3.00");
+		BigDecimal before = balance(source);
+
+		String first = transfer("replay-key", request, source, target);
+		String second = transfer("replay-key", request, source, target);
+
+		assertEquals(first, second);
+		assertEquals(0, before.subtract(new BigDecimal("3.00")).compareTo(balance(source)));
+	}
+
+	@Test
+	void failureAfterPostingDoesNotPostAgain() {
+		List<Account> accounts = accountRepository.findAll();
+		Long source = accounts.get(2).getAccountId();
+		Long target = accounts.get(3).getAccountId();
+		Map<String, Object> request = Map.of("source", source, "target", target, "amount", "5.00");
+		BigDecimal before = balance(source);
+
+		doThrow(new DataAccessResourceFailureException("connection lost"))
+				.when(idempotencyRecordRepository).storeResponse(eq("transfer:anonymous:lost-response"), anyString());
+		assertThrows(DataAccessResourceFailureException.class,
+				() -> transfer("lost-response", request, source, target));
+
+		// The transfer went through; the retry must be told it is in progress rather than post it again
+		assertEquals(0, before.subtract(new BigDecimal("5.00")).compareTo(balance(source)));
+		assertThrows(InvalidOperationException.class, () -> transfer("lost-response", request, source, target));
+		assertEquals(0, before.subtract(new BigDecimal("5.00")).compareTo(balance(source)));
+	}
+
+	@Test
+	void failedWorkReleasesTheKey() {
+		List<Account> accounts = accountRepository.findAll();
+		Long source = accounts.get(4).getAccountId();
+		Long target = accounts.get(5).getAccountId();
+		BigDecimal before = balance(source);
+		Map<String, Object> tooMuch = Map.of("source", source, "target", target, "amount", "1000000000");
+
+		assertThrows(RuntimeException.class, () -> idempotencyService.execute("transfer", "released", tooMuch, String.class,
+				() -> {
+					transactionService.transfer(source, target, new BigDecimal("1000000000"));
+					return "SUCCESS";
+				}));
+		assertEquals(0, before.compareTo(balance(source)));
+		assertFalse(idempotencyRecordRepository.existsById("transfer:anonymous:released"));
+	}
+
+	private String transfer(String key, Object request, Long source, Long target) {
+		return idempotencyService.execute("transfer", key, request, String.class, () -> {
+			transactionService.transfer(source, target, new BigDecimal((String) ((Map<?, ?>) request).get("amount")));
+			return "Transferred at " + System.nanoTime();
+		});
+	}
+
+	private BigDecimal balance(Long accountId) {
+		return balanceEngine.balanceOf(accountId).orElseThrow();
+	}
+}
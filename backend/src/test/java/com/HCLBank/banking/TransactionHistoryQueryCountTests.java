@@ -0,0 +1,82 @@
+package com.HCLBank.banking;
+
+import com.HCLBank.banking.dto.TransactionHistoryPageDTO;
+import com.HCLBank.banking.entity.Account;
+import com.HCLBank.banking.repository.AccountRepository;
+import com.HCLBank.banking.service.TransactionService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+// Guards the history endpoint against N+1 regressions: a page must stay a single statement
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:history;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.show-sql=false",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class TransactionHistoryQueryCountTests {
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Test
+	void historyPageIsOneStatement() {
+		List<Account> accounts = accountRepository.findAll();
+		Long accountId = accounts.get(0).getAccountId();
+		// Several counterparties, so per-row account loads would show up as extra statements
+		for (int i = 1; i < accounts.size(); i++) {
+			transactionService.transfer(accountId, accounts.get(i).getAccountId(), BigDecimal.ONE);
+			transactionService.transfer(accounts.get(i).getAccountId(), accountId, BigDecimal.ONE);
+		}
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		TransactionHistoryPageDTO page = transactionService.getHistory(accountId, null, 5, null, null, null);
+		assertEquals(1, statistics.getPrepareStatementCount());
+
+		assertEquals(5, page.getItems().size());
+		assertNotNull(page.getNextCursor());
+
+		statistics.clear();
+		transactionService.getHistory(accountId, page.getNextCursor(), 5, null, null, "CREDIT");
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void repeatedHistoryPageIsServedFromCacheWithNewPostings() {
+		List<Account> accounts = accountRepository.findAll();
+		Long accountId = accounts.get(1).getAccountId();
+		transactionService.getHistory(accountId, null, 5, null, null, null);
+		transactionService.transfer(accounts.get(0).getAccountId(), accountId, new BigDecimal("3.00"));
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		TransactionHistoryPageDTO page = transactionService.getHistory(accountId, null, 5, null, null, null);
+		assertEquals(0, statistics.getPrepareStatementCount());
+
+		assertEquals("CREDIT", page.getItems().get(0).getType());
+		assertEquals(0, new BigDecimal("3.00").compareTo(page.getItems().get(0).getAmount()));
+		assertEquals(accounts.get(0).getAccountName(), page.getItems().get(0).getOtherParty());
+	}
+
+}
@@ -0,0 +1,173 @@
+package com.HCLBank.banking.service.engine;
+
+import com.HCLBank.banking.entity.Account;
+import com.HCLBank.banking.exception.InsufficientBalanceException;
+import com.HCLBank.banking.repository.AccountRepository;
+import com.HCLBank.banking.repository.EngineCheckpointRepository;
+import com.HCLBank.banking.repository.TransactionRepository;
+import com.HCLBank.banking.service.TransactionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Engine mode acknowledges from the journal and writes the database behind; both must end up agreeing
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:engine;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.show-sql=false",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"banking.engine.enabled=true"
+})
+class BalanceEngineTests {
+
+	private static Path journalDir;
+
+	@DynamicPropertySource
+	static void journalDir(DynamicPropertyRegistry registry) throws IOException {
+		journalDir = Files.createTempDirectory("engine-journal");
+		registry.add("banking.engine.journal-dir", journalDir::toString);
+	}
+
+	@Autowired
+	private BalanceEngine balanceEngine;
+
+	@Autowired
+	private TransactionService transactionService;
+
+	@Autowired
+	private AccountRepository accountRepository;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private EngineCheckpointRepository checkpointRepository;
+
+	@Test
+	void concurrentTransfersConserveBalances() throws Exception {
+		List<Long> accountIds = accountRepository.findAll().stream().map(Account::getAccountId).toList();
+		BigDecimal before = engineTotal(accountIds);
+		long rowsBefore = transactionRepository.count();
+
+		// Every ordered pair, many times over, so same- and cross-partition transfers race each other
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		List<Future<Boolean>> transfers = new ArrayList<>();
+		for (int round = 0; round < 50; round++) {
+			for (Long source : accountIds) {
+				for (Long target : accountIds) {
+					if (!source.equals(target)) {
+						transfers.add(executor.submit(() -> transfer(source, target, new BigDecimal("1.25"))));
+					}
+				}
+			}
+		}
+		int posted = 0;
+		for (Future<Boolean> transfer : transfers) {
+			posted += transfer.get() ? 1 : 0;
+		}
+		executor.shutdown();
+
+		assertTrue(posted > 0);
+		assertEquals(0, before.compareTo(engineTotal(accountIds)));
+
+		awaitLedgerRows(rowsBefore + posted);
+		BigDecimal stored = BigDecimal.ZERO;
+		for (Account account : accountRepository.findAll()) {
+			stored = stored.add(account.getBalance());
+			assertEquals(0, balance(account.getAccountId()).compareTo(account.getBalance()));
+		}
+		assertEquals(0, before.compareTo(stored));
+	}
+
+	@Test
+	void restartReplaysJournaledPostingsTheDatabaseMissed() throws Exception {
+		List<Long> accountIds = accountRepository.findAll().stream().map(Account::getAccountId).toList();
+		int partitionCount = (Integer) balanceEngine.stats().get("partitions");
+		Long source = accountIds.get(0);
+		Long target = accountIds.stream()
+				.filter(id -> partitionOf(id, partitionCount) != partitionOf(source, partitionCount))
+				.findFirst().orElseThrow();
+		balanceEngine.stop();
+		BigDecimal sourceBefore = accountRepository.findById(source).orElseThrow().getBalance();
+		BigDecimal targetBefore = accountRepository.findById(target).orElseThrow().getBalance();
+		long rowsBefore = transactionRepository.count();
+
+		// A transfer acknowledged from the journal whose write-behind never ran before the crash
+		int partition = partitionOf(source, partitionCount);
+		long sequence = checkpointRepository.findById(partition).orElseThrow().getLastSequence() + 1;
+		try (EngineJournal journal = new EngineJournal(journalDir, partition, 64L * 1024 * 1024)) {
+			journal.startSegment(sequence);
+			journal.append(new EnginePosting(partition, sequence, EnginePosting.Type.TRANSFER, source, target,
+					new BigDecimal("7.00"), LocalDateTime.now()));
+			journal.flush();
+		}
+
+		balanceEngine.start();
+
+		assertEquals(0, sourceBefore.subtract(new BigDecimal("7.00"))
+				.compareTo(accountRepository.findById(source).orElseThrow().getBalance()));
+		assertEquals(0, targetBefore.add(new BigDecimal("7.00"))
+				.compareTo(accountRepository.findById(target).orElseThrow().getBalance()));
+		assertEquals(rowsBefore + 1, transactionRepository.count());
+		assertEquals(sequence, checkpointRepository.findById(partition).orElseThrow().getLastSequence());
+		assertEquals(0, sourceBefore.subtract(new BigDecimal("7.00")).compareTo(balance(source)));
+
+		// Postings continue after the replayed sequence rather than reusing it
+		transactionService.transfer(source, target, BigDecimal.ONE);
+		awaitLedgerRows(rowsBefore + 2);
+		assertEquals(0, sourceBefore.subtract(new BigDecimal("8.00"))
+				.compareTo(accountRepository.findById(source).orElseThrow().getBalance()));
+	}
+
+	private boolean transfer(Long source, Long target, BigDecimal amount) {
+		try {
+			transactionService.transfer(source, target, amount);
+			return true;
+		} catch (InsufficientBalanceException ex) {
+			return false;
+		}
+	}
+
+	private BigDecimal engineTotal(List<Long> accountIds) {
+		BigDecimal total = BigDecimal.ZERO;
+		for (Long accountId : accountIds) {
+			total = total.add(balance(accountId));
+		}
+		return total;
+	}
+
+	private BigDecimal balance(Long accountId) {
+		return balanceEngine.balanceOf(accountId).orElseThrow();
+	}
+
+	// The database trails the engine; each written posting adds exactly one ledger row
+	private void awaitLedgerRows(long expected) throws InterruptedException {
+		for (int i = 0; i < 200 && transactionRepository.count() < expected; i++) {
+			Thread.sleep(50);
+		}
+		assertEquals(expected, transactionRepository.count());
+	}
+
+	private static int partitionOf(Long accountId, int partitionCount) {
+		return Math.floorMod(Long.hashCode(accountId), partitionCount);
+	}
+}
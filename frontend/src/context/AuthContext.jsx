@@ -1,4 +1,5 @@
 import React, { createContext, useState, useContext, useEffect } from 'react';
+import { authService } from '../services/api';
 
 const AuthContext = createContext();
 
@@ -42,6 +43,11 @@ export const AuthProvider = ({ children }) => {
   };
 
   const logout = () => {
+    const token = localStorage.getItem('token');
+    if (token) {
+      // Revoke the token server-side; the local session ends either way
+      authService.logout(token).catch(() => {});
+    }
     storageKeys.forEach((key) => localStorage.removeItem(key));
     setUser(null);
   };
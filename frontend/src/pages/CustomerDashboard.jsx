@@ -29,8 +29,8 @@ const CustomerDashboard = () => {
         }
 
         try {
-          const usersRes = await userService.getAllSearchable();
-          const matchedUser = usersRes.data?.find((u) => u.upiId === myUpi) || {
+          const usersRes = await userService.searchByUpi(myUpi);
+          const matchedUser = usersRes.data || {
             name: safeUsername,
             upiId: myUpi,
             bankName: 'HCL Bank',
@@ -47,9 +47,9 @@ const CustomerDashboard = () => {
         }
 
         try {
-          const transRes = await transactionService.getHistory(accRes.data.accountId);
-          const txList = Array.isArray(transRes.data) ? transRes.data : [];
-          setTransactions(txList.slice(0, 5));
+          const transRes = await transactionService.getHistory(accRes.data.accountId, { limit: 5 });
+          const txList = Array.isArray(transRes.data?.items) ? transRes.data.items : [];
+          setTransactions(txList);
         } catch (txErr) {
           setTransactions([]);
         }
@@ -25,14 +25,13 @@ const Profile = () => {
   useEffect(() => {
     const loadProfile = async () => {
       try {
-        const [accountRes, usersRes] = await Promise.all([
+        const currentUpi = getUpiFromUsername(user?.username);
+        const [accountRes, match] = await Promise.all([
           accountService.getMyAccount(),
-          userService.getAllSearchable(),
+          userService.searchByUpi(currentUpi).then((res) => res.data).catch(() => null),
         ]);
         setAccount(accountRes.data);
 
-        const currentUpi = getUpiFromUsername(user?.username);
-        const match = usersRes.data.find((u) => u.upiId === currentUpi);
         if (match?.upiId) setUpiId(match.upiId);
       } catch (error) {
         toast.error(getApiErrorMessage(error, 'Failed to load profile'));
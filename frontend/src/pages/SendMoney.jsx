@@ -26,7 +26,7 @@ const SendMoney = () => {
     const fetchInitialData = async () => {
       try {
         const [{ data: users }, { data: account }] = await Promise.all([
-          userService.getAllSearchable(),
+          userService.searchPayees('', 17),
           accountService.getMyAccount(),
         ]);
 
@@ -44,6 +44,21 @@ const SendMoney = () => {
     fetchInitialData();
   }, [myUpi]);
 
+  useEffect(() => {
+    const query = upiId.trim();
+    if (!query) return undefined;
+    // Typeahead: ask the server once typing pauses instead of shipping the whole directory
+    const timer = setTimeout(async () => {
+      try {
+        const { data } = await userService.searchPayees(query, 17);
+        setSuggested(data.filter((u) => u.upiId !== myUpi).slice(0, 16));
+      } catch (error) {
+        setSuggested([]);
+      }
+    }, 200);
+    return () => clearTimeout(timer);
+  }, [upiId, myUpi]);
+
   const resolveSourceAccountId = async () => {
     if (sourceAccountId) return sourceAccountId;
     const { data } = await accountService.getMyAccount();
@@ -84,17 +99,17 @@ const SendMoney = () => {
   };
 
   const handleTransfer = async () => {
-    if (!receiver?.accountId) {
-      toast.error('Receiver account details are missing');
+    if (!receiver?.upiId) {
+      toast.error('Receiver details are missing');
       return;
     }
 
     setIsLoading(true);
     try {
       const resolvedSourceAccountId = await resolveSourceAccountId();
-      await transactionService.transfer({
+      await transactionService.payUpi({
         sourceAccountId: Number(resolvedSourceAccountId),
-        targetAccountId: Number(receiver.accountId),
+        upiId: receiver.upiId,
         amount: Number(amount),
       });
       setShowConfirm(false);
@@ -10,6 +10,9 @@ const TransactionsHistory = () => {
   const [filter, setFilter] = useState('ALL');
   const [searchTerm, setSearchTerm] = useState('');
   const [errorMessage, setErrorMessage] = useState('');
+  const [accountId, setAccountId] = useState(null);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [loadingMore, setLoadingMore] = useState(false);
 
   const fetchHistory = async () => {
     setLoading(true);
@@ -20,15 +23,32 @@ const TransactionsHistory = () => {
         throw new Error('Account ID is missing');
       }
       const { data } = await transactionService.getHistory(acc.accountId);
-      setTransactions(data);
+      setAccountId(acc.accountId);
+      setTransactions(data.items || []);
+      setNextCursor(data.nextCursor || null);
     } catch (error) {
       setTransactions([]);
+      setNextCursor(null);
       setErrorMessage(getApiErrorMessage(error, 'Failed to load transactions'));
     } finally {
       setLoading(false);
     }
   };
 
+  const loadMore = async () => {
+    if (!nextCursor) return;
+    setLoadingMore(true);
+    try {
+      const { data } = await transactionService.getHistory(accountId, { cursor: nextCursor });
+      setTransactions((prev) => [...prev, ...(data.items || [])]);
+      setNextCursor(data.nextCursor || null);
+    } catch (error) {
+      toast.error(getApiErrorMessage(error, 'Failed to load more transactions'));
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   useEffect(() => {
     fetchHistory();
   }, []);
@@ -166,6 +186,17 @@ const TransactionsHistory = () => {
           {!loading && !errorMessage && filteredTransactions.length === 0 && (
             <div className="text-center py-12 text-gray-400 font-medium">No transactions found matching your criteria.</div>
           )}
+          {!loading && nextCursor && (
+            <div className="flex justify-center pt-6">
+              <button
+                onClick={loadMore}
+                disabled={loadingMore}
+                className="px-4 py-2 rounded-fintech border border-gray-200 text-gray-600 hover:bg-gray-50 transition-all"
+              >
+                {loadingMore ? 'Loading...' : 'Load more'}
+              </button>
+            </div>
+          )}
         </div>
       </div>
     </motion.div>
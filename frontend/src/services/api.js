@@ -15,6 +15,7 @@ api.interceptors.request.use((config) => {
 export const authService = {
   login: (data) => api.post('/auth/login', data),
   register: (data) => api.post('/auth/register', data),
+  logout: (token) => api.post('/auth/logout', null, { headers: { Authorization: `Bearer ${token}` } }),
 };
 
 export const accountService = {
@@ -25,19 +26,21 @@ export const accountService = {
 export const userService = {
   searchByUpi: (upiId) => api.get(`/users/search?upiId=${upiId}`),
   getAllSearchable: () => api.get('/users/all'),
+  searchPayees: (q, limit) => api.get('/users/search/typeahead', { params: { q, limit } }),
   submitKyc: () => api.post('/users/kyc/submit'),
   getAll: () => api.get('/users'),
   updateKycStatus: (id, status) => api.put(`/users/${id}/kyc-status?status=${status}`),
 };
 
 export const transactionService = {
-  getHistory: (accountId) => {
+  getHistory: (accountId, params = {}) => {
     if (accountId === null || accountId === undefined || Number.isNaN(Number(accountId))) {
       return Promise.reject(new Error('Account ID is missing'));
     }
-    return api.get(`/transactions/history/${accountId}`);
+    return api.get(`/transactions/history/${accountId}`, { params });
   },
   transfer: (data) => api.post('/transactions/transfer', data),
+  payUpi: (data) => api.post('/transactions/pay-upi', data),
 };
 
 export const getApiErrorMessage = (error, fallbackMessage = 'Something went wrong') => {